@@ -34,4 +34,89 @@ ALTER TABLE categories
 ALTER TABLE categories
     ADD COLUMN last_modified_date TIMESTAMP;
 
-SELECT * FROM categories;
\ No newline at end of file
+SELECT * FROM categories;
+
+CREATE TABLE id_generators
+(
+    name     VARCHAR(100) NOT NULL,
+    next_val BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'categories', COALESCE(MAX(id), 0) + 1
+FROM categories;
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'products', COALESCE(MAX(id), 0) + 1
+FROM products;
+
+SELECT * FROM id_generators;
+
+ALTER TABLE products
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE products
+    ADD FULLTEXT INDEX ft_products_name (name);
+
+ALTER TABLE categories
+    ADD FULLTEXT INDEX ft_categories_name (name);
+
+CREATE INDEX products_category_id_price ON products (category_id, price);
+
+CREATE TABLE category_stats
+(
+    category_id   BIGINT NOT NULL,
+    product_count BIGINT NOT NULL,
+    sum_price     BIGINT NOT NULL,
+    min_price     BIGINT,
+    max_price     BIGINT,
+    PRIMARY KEY (category_id),
+    FOREIGN KEY fk_category_stats_categories (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+INSERT INTO category_stats (category_id, product_count, sum_price, min_price, max_price)
+SELECT c.id, COUNT(p.id), COALESCE(SUM(p.price), 0), MIN(p.price), MAX(p.price)
+FROM categories c
+         LEFT JOIN products p ON p.category_id = c.id
+GROUP BY c.id;
+
+SELECT * FROM category_stats;
+
+CREATE TABLE audit_outbox
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id   BIGINT,
+    action      VARCHAR(20)  NOT NULL,
+    changes     TEXT,
+    changed_by  VARCHAR(100),
+    changed_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE audit_log
+(
+    id          BIGINT       NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id   BIGINT,
+    action      VARCHAR(20)  NOT NULL,
+    changes     TEXT,
+    changed_by  VARCHAR(100),
+    changed_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX audit_log_entity (entity_type, entity_id, id)
+) ENGINE = InnoDB;
+
+CREATE TABLE product_chunk_checkpoints
+(
+    job_name     VARCHAR(100) NOT NULL,
+    from_id      BIGINT       NOT NULL,
+    to_id        BIGINT       NOT NULL,
+    processed    INT          NOT NULL,
+    completed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (job_name, from_id)
+) ENGINE = InnoDB;
+
+-- schema changes from here on are Flyway migrations in src/main/resources/db/migration,
+-- a database built with this script is baselined at version 1.1
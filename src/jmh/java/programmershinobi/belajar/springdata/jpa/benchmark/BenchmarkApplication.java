@@ -0,0 +1,64 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import programmershinobi.belajar.springdata.jpa.BelajarSpringDataJpaApplication;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the JPA context against an in-memory H2 database (application-benchmark.properties)
+final class BenchmarkApplication {
+
+    static final String CATEGORY_NAME = "CATEGORY 0";
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(List.of(), properties);
+    }
+
+    // profiles on top of benchmark
+    static ConfigurableApplicationContext start(List<String> profiles, String... properties) {
+        List<String> active = new ArrayList<>(profiles);
+        active.add(0, "benchmark");
+        return new SpringApplicationBuilder(BelajarSpringDataJpaApplication.class)
+                .profiles(active.toArray(String[]::new))
+                .properties(properties)
+                .run();
+    }
+
+    static void seed(ConfigurableApplicationContext context, int categories, int productsPerCategory) {
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        List<Category> categoryList = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            Category category = new Category();
+            category.setName("CATEGORY " + i);
+            categoryList.add(category);
+        }
+        categoryRepository.bulkInsert(categoryList);
+
+        for (Category category : categoryList) {
+            productRepository.bulkInsert(products(category, productsPerCategory));
+        }
+    }
+
+    static List<Product> products(Category category, int total) {
+        List<Product> products = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            Product product = new Product();
+            product.setName((i % 2 == 0 ? "DELL " : "ASUS ") + category.getId() + "-" + i);
+            product.setPrice(1_000_000L + i);
+            product.setCategory(category);
+            products.add(product);
+        }
+        return products;
+    }
+}
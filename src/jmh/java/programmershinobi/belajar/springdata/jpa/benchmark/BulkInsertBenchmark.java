@@ -0,0 +1,70 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Every invocation inserts ROWS products and rolls back, so the table does not grow between iterations
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private TransactionOperations transactionOperations;
+
+    private Category category;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, 1, 0);
+        productRepository = context.getBean(ProductRepository.class);
+        transactionOperations = context.getBean(TransactionOperations.class);
+        category = context.getBean(CategoryRepository.class).findFirstByNameEquals(BenchmarkApplication.CATEGORY_NAME)
+                .orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void save() {
+        List<Product> products = BenchmarkApplication.products(category, ROWS);
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            for (Product product : products) {
+                productRepository.save(product);
+                productRepository.flush();
+            }
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bulkInsert() {
+        List<Product> products = BenchmarkApplication.products(category, ROWS);
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            productRepository.bulkInsert(products);
+            transactionStatus.setRollbackOnly();
+        });
+    }
+}
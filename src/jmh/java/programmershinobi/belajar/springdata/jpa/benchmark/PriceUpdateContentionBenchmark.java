@@ -0,0 +1,49 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+import programmershinobi.belajar.springdata.jpa.service.ProductPriceService;
+
+import java.util.concurrent.TimeUnit;
+
+// N writers on the same row; SampleTime reports p99, override the writer count with -t
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class PriceUpdateContentionBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private ProductPriceService productPriceService;
+
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, 1, 1);
+        productPriceService = context.getBean(ProductPriceService.class);
+        productId = context.getBean(ProductRepository.class).findAll().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product pessimistic() {
+        return productPriceService.updatePricePessimistic(productId, price -> price + 1);
+    }
+
+    @Benchmark
+    public Product optimistic() {
+        return productPriceService.updatePrice(productId, price -> price + 1);
+    }
+}
@@ -0,0 +1,87 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.ProductPrice;
+import programmershinobi.belajar.springdata.jpa.model.SimpleProduct;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductRepositoryBenchmark {
+
+    @Param({"100"})
+    public int productsPerCategory;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private final Sort sort = Sort.by(Sort.Order.desc("id"));
+
+    private final Pageable pageable = PageRequest.of(1, 20, Sort.by(Sort.Order.desc("id")));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, 10, productsPerCategory);
+        productRepository = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> findAllByCategoryName() {
+        return productRepository.findAllByCategory_Name(BenchmarkApplication.CATEGORY_NAME);
+    }
+
+    @Benchmark
+    public List<Product> findAllByCategoryNameSort() {
+        return productRepository.findAllByCategory_Name(BenchmarkApplication.CATEGORY_NAME, sort);
+    }
+
+    @Benchmark
+    public Page<Product> findAllByCategoryNamePage() {
+        return productRepository.findAllByCategory_Name(BenchmarkApplication.CATEGORY_NAME, pageable);
+    }
+
+    @Benchmark
+    public Page<Product> searchProduct() {
+        return productRepository.searchProduct("%DELL 1-%", pageable);
+    }
+
+    @Benchmark
+    public List<SimpleProduct> findAllByNameLikeSimpleProduct() {
+        return productRepository.findAllByNameLike("DELL 1-%", SimpleProduct.class);
+    }
+
+    @Benchmark
+    public List<ProductPrice> findAllByNameLikeProductPrice() {
+        return productRepository.findAllByNameLike("DELL 1-%", ProductPrice.class);
+    }
+
+    @Benchmark
+    public boolean existsByName() {
+        return productRepository.existsByName("DELL 1-0");
+    }
+
+    @Benchmark
+    public Long countByCategoryName() {
+        return productRepository.countByCategory_Name(BenchmarkApplication.CATEGORY_NAME);
+    }
+}
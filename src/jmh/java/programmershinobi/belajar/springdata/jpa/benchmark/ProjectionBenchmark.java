@@ -0,0 +1,53 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.SimpleProduct;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compare gc.alloc.rate.norm: entity hydration vs column-only constructor projections
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final String NAME = "DELL %";
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, 10, 100);
+        productRepository = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> entities() {
+        return productRepository.findAllByNameLike(NAME, Product.class);
+    }
+
+    @Benchmark
+    public List<SimpleProduct> derivedProjection() {
+        return productRepository.findAllByNameLike(NAME, SimpleProduct.class);
+    }
+
+    @Benchmark
+    public List<SimpleProduct> constructorProjection() {
+        return productRepository.findAllProjectedByNameLike(NAME, SimpleProduct.class);
+    }
+}
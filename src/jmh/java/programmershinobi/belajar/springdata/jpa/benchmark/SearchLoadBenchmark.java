@@ -0,0 +1,65 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import programmershinobi.belajar.springdata.jpa.service.ProductSearchService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// 1k concurrent "requests" per invocation; virtualThreads=true needs a Java 21 runtime
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SearchLoadBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 1_000;
+
+    // Tomcat's default max threads
+    private static final int PLATFORM_REQUEST_THREADS = 200;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductSearchService productSearchService;
+
+    private ExecutorService requestExecutor;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start("spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkApplication.seed(context, 10, 100);
+        productSearchService = context.getBean(ProductSearchService.class);
+        requestExecutor = virtualThreads
+                ? (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null)
+                : Executors.newFixedThreadPool(PLATFORM_REQUEST_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public void searchProduct() {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[CONCURRENT_REQUESTS];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = CompletableFuture.runAsync(
+                    () -> productSearchService.searchProduct("%DELL%", pageable), requestExecutor);
+        }
+        CompletableFuture.allOf(requests).join();
+    }
+}
@@ -0,0 +1,70 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+import programmershinobi.belajar.springdata.jpa.specification.ProductSpecifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of the same dynamic filter with changing values; "inline,false" is the setup before
+// bind parameters, IN padding and the criteria plan cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    @Param({"inline", "bind"})
+    public String valueHandlingMode;
+
+    @Param({"false", "true"})
+    public boolean planCache;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private final List<List<String>> nameSets = new ArrayList<>();
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.criteria.value_handling_mode=" + valueHandlingMode,
+                "spring.jpa.properties.hibernate.criteria.plan_cache_enabled=" + planCache,
+                "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=" + planCache);
+        BenchmarkApplication.seed(context, 10, 100);
+        productRepository = context.getBean(ProductRepository.class);
+
+        // 1 to 7 names, different values on every call
+        for (int i = 0; i < 64; i++) {
+            List<String> names = new ArrayList<>();
+            for (int j = 0; j <= i % 7; j++) {
+                names.add("DELL " + (1 + (i + j) % 10) + "-" + (2 * j));
+            }
+            nameSets.add(names);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> nameInPriceRangeCategory() {
+        List<String> names = nameSets.get(next++ & 63);
+        Specification<Product> specification = ProductSpecifications.nameIn(names)
+                .and(ProductSpecifications.priceBetween(1_000_000L, 1_000_000L + names.size() * 10L))
+                .and(ProductSpecifications.inCategory((long) (1 + names.size() % 10)));
+        return productRepository.findAll(specification);
+    }
+}
@@ -0,0 +1,38 @@
+package programmershinobi.belajar.springdata.jpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold start to the first repository query, one sample per fresh JVM.
+// For AOT and CDS add -jvmArgsAppend "-Dspring.aot.enabled=true -XX:SharedArchiveFile=..." with a fast-boot build
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-boot"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public long timeToFirstQuery() {
+        context = "fast-boot".equals(mode) ? BenchmarkApplication.start(List.of("fast-boot")) : BenchmarkApplication.start();
+        // with deferred bootstrap this is where the repository is awaited
+        return context.getBean(ProductRepository.class).count();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
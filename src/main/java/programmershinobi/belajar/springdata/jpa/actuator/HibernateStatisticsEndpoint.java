@@ -0,0 +1,52 @@
+package programmershinobi.belajar.springdata.jpa.actuator;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import programmershinobi.belajar.springdata.jpa.service.CacheStatisticsService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/hibernate, a summary of Hibernate Statistics; time series are under /actuator/metrics/hibernate.*
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("statements", statistics.getPrepareStatementCount());
+        summary.put("queries", statistics.getQueryExecutionCount());
+        summary.put("queryMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        summary.put("queryMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        summary.put("entityLoads", statistics.getEntityLoadCount());
+        summary.put("entityFetches", statistics.getEntityFetchCount());
+        summary.put("collectionLoads", statistics.getCollectionLoadCount());
+        summary.put("flushes", statistics.getFlushCount());
+        summary.put("transactions", statistics.getTransactionCount());
+        summary.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        summary.put("secondLevelCacheHitRatio", ratio(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount()));
+        summary.put("queryCacheHitRatio", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        summary.put("categoryCache", cacheStatisticsService.categoryEntityCache());
+        return summary;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
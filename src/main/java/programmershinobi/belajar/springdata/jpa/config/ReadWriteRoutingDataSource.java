@@ -0,0 +1,120 @@
+package programmershinobi.belajar.springdata.jpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the
+ * connection is fetched after the transaction has been marked read-only. Reads fall back to the primary
+ * for a while after the same thread committed a write (replica lag) and while the replica is unreachable.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Long> PRIMARY_PINNED_UNTIL = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final long primaryPinNanos;
+
+    private final long replicaRetryNanos;
+
+    private volatile long replicaDownUntil = System.nanoTime();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      Duration primaryPinAfterWrite, Duration replicaRetryDelay) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryPinNanos = primaryPinAfterWrite.toNanos();
+        this.replicaRetryNanos = replicaRetryDelay.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!useReplica()) {
+            pinPrimaryAfterCommit();
+            return primary.getConnection();
+        }
+
+        try {
+            return replica.getConnection();
+        } catch (SQLException exception) {
+            replicaDownUntil = System.nanoTime() + replicaRetryNanos;
+            log.warn("Replica unavailable, routing reads to primary for {} ms", replicaRetryNanos / 1_000_000, exception);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return useReplica() ? replica.getConnection(username, password) : primary.getConnection(username, password);
+    }
+
+    // routes connections opened by work to the replica like a read-only transaction would, for reads that manage
+    // their own resource-local transaction and so never set Spring's read-only flag
+    public static <T> T readOnly(Supplier<T> work) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            } else {
+                READ_ONLY.set(previous);
+            }
+        }
+    }
+
+    static void clearPrimaryPin() {
+        PRIMARY_PINNED_UNTIL.remove();
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !Boolean.TRUE.equals(READ_ONLY.get())) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        if (now - replicaDownUntil < 0) {
+            return false;
+        }
+
+        Long pinnedUntil = PRIMARY_PINNED_UNTIL.get();
+        if (pinnedUntil != null) {
+            if (now - pinnedUntil < 0) {
+                return false;
+            }
+            PRIMARY_PINNED_UNTIL.remove();
+        }
+        return true;
+    }
+
+    // read-your-writes: the replica may not have this transaction yet
+    private void pinPrimaryAfterCommit() {
+        if (primaryPinNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                PRIMARY_PINNED_UNTIL.set(System.nanoTime() + primaryPinNanos);
+            }
+        });
+    }
+}
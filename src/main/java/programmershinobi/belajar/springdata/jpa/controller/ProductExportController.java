@@ -0,0 +1,53 @@
+package programmershinobi.belajar.springdata.jpa.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.service.ProductExportFormat;
+import programmershinobi.belajar.springdata.jpa.service.ProductExportService;
+
+import java.util.Locale;
+
+@RestController
+public class ProductExportController {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @GetMapping("/categories/{categoryId}/products/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable("categoryId") Long categoryId,
+                                                        @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        ProductExportFormat exportFormat = toFormat(format);
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+
+        StreamingResponseBody body = outputStream -> productExportService.export(category, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products-" + categoryId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private static ProductExportFormat toFormat(String format) {
+        try {
+            return ProductExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format " + format);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+// A product moved to products_archive by ProductArchiveService, never written through JPA
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "products_archive")
+public class ArchivedProduct {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private Long price;
+
+    private Long version;
+
+    // no foreign key in the database, partitioned tables cannot have one
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", referencedColumnName = "id")
+    private Category category;
+
+    @Column(name = "created_date")
+    private Instant createdDate;
+
+    @Column(name = "archived_at")
+    private Instant archivedAt;
+}
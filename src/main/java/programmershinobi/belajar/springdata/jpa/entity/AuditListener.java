@@ -0,0 +1,61 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import programmershinobi.belajar.springdata.jpa.model.AuditAction;
+import programmershinobi.belajar.springdata.jpa.service.AuditOutbox;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+// Records Category and Product changes into the transaction's audit buffer, nothing is written to the database here.
+// Must be listed before ProductStatsListener, which resets the Product snapshot this listener diffs against.
+public class AuditListener {
+
+    @Autowired
+    private AuditOutbox auditOutbox;
+
+    @PostPersist
+    void persisted(Object entity) {
+        record(entity, AuditAction.INSERT);
+    }
+
+    @PostUpdate
+    void updated(Object entity) {
+        record(entity, AuditAction.UPDATE);
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        record(entity, AuditAction.DELETE);
+    }
+
+    private void record(Object entity, AuditAction action) {
+        if (entity instanceof Product product) {
+            auditOutbox.record(Product.class, product.getId(), action, changes(product, action));
+        } else if (entity instanceof Category category) {
+            auditOutbox.record(Category.class, category.getId(), action, "name=" + category.getName());
+        }
+    }
+
+    private static String changes(Product product, AuditAction action) {
+        Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+        StringJoiner changes = new StringJoiner(", ");
+        changes.add("name=" + product.getName());
+
+        if (action == AuditAction.UPDATE) {
+            changes.add(change("price", product.getSnapshotPrice(), product.getPrice()));
+            changes.add(change("category_id", product.getSnapshotCategoryId(), categoryId));
+        } else {
+            changes.add("price=" + product.getPrice());
+            changes.add("category_id=" + categoryId);
+        }
+        return changes.toString();
+    }
+
+    private static String change(String name, Object previous, Object current) {
+        return Objects.equals(previous, current) ? name + "=" + current : name + "=" + previous + "->" + current;
+    }
+}
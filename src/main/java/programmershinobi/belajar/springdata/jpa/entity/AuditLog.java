@@ -0,0 +1,42 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+import programmershinobi.belajar.springdata.jpa.model.AuditAction;
+
+import java.time.Instant;
+
+// Copied from audit_outbox by AuditOutboxRelay, never written through JPA
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "audit_log")
+public class AuditLog {
+
+    @Id
+    private Long id;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    private AuditAction action;
+
+    private String changes;
+
+    @Column(name = "changed_by")
+    private String changedBy;
+
+    @Column(name = "changed_at")
+    private Instant changedAt;
+}
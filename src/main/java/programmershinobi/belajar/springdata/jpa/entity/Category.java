@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,16 +21,30 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "categories")
-@EntityListeners({AuditingEntityListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({AuditingEntityListener.class, AuditListener.class, CategoryStatsListener.class})
+@BatchSize(size = 50)
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categories_id")
+    @TableGenerator(
+            name = "categories_id",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_val",
+            pkColumnValue = "categories",
+            allocationSize = 50
+    )
     private Long id;
 
     private String name;
 
+    // unbounded, prefer ProductRepository.findAllByCategory_Id(id, pageable) and CategoryStatsRepository for counts;
+    // when it is touched, the collections of up to 50 loaded categories are initialized by one IN query
     @OneToMany(mappedBy = "category")
+    @BatchSize(size = 50)
     private List<Product> products;
 
     @LastModifiedDate
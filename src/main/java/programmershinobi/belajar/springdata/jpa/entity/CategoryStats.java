@@ -0,0 +1,38 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+// Maintained by CategoryStatsService from product writes, never written through JPA
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "category_stats")
+public class CategoryStats {
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "product_count")
+    private Long productCount;
+
+    @Column(name = "sum_price")
+    private Long sumPrice;
+
+    @Column(name = "min_price")
+    private Long minPrice;
+
+    @Column(name = "max_price")
+    private Long maxPrice;
+}
@@ -0,0 +1,19 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import programmershinobi.belajar.springdata.jpa.service.CategoryStatsService;
+
+// Drops the category_stats row before its category, which the foreign key would otherwise refuse
+public class CategoryStatsListener {
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @PreRemove
+    void removing(Category category) {
+        if (category.getId() != null) {
+            categoryStatsService.categoryRemoved(category.getId());
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package programmershinobi.belajar.springdata.jpa.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -12,6 +17,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @Entity
 @Table(name = "products")
+@EntityListeners({AuditingEntityListener.class, AuditListener.class, ProductStatsListener.class})
 @NamedQueries({
         @NamedQuery(
                 name = "Product.searchProductUsingName",
@@ -21,14 +27,44 @@ import lombok.Setter;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "products_id")
+    @TableGenerator(
+            name = "products_id",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_val",
+            pkColumnValue = "products",
+            allocationSize = 50
+    )
     private Long id;
 
     private String name;
 
     private Long price;
 
-    @ManyToOne
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", referencedColumnName = "id")
     private Category category;
+
+    // products older than app.product.archive.hot-retention are moved to products_archive
+    @CreatedDate
+    @Column(name = "created_date", updatable = false)
+    private Instant createdDate;
+
+    // price and category as last read from or written to the database, used by entity listeners
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Long snapshotPrice;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Long snapshotCategoryId;
+
+    void snapshot() {
+        snapshotPrice = price;
+        snapshotCategoryId = category == null ? null : category.getId();
+    }
 }
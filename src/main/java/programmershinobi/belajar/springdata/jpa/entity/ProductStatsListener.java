@@ -0,0 +1,60 @@
+package programmershinobi.belajar.springdata.jpa.entity;
+
+import jakarta.persistence.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import programmershinobi.belajar.springdata.jpa.service.CategoryStatsService;
+
+import java.util.Objects;
+
+// Keeps category_stats in step with every Product insert, update and delete done through the EntityManager
+public class ProductStatsListener {
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @PostLoad
+    void loaded(Product product) {
+        product.snapshot();
+    }
+
+    @PostPersist
+    void persisted(Product product) {
+        Long categoryId = categoryId(product);
+        if (categoryId != null) {
+            categoryStatsService.productAdded(categoryId, product.getPrice());
+        }
+        product.snapshot();
+    }
+
+    @PostUpdate
+    void updated(Product product) {
+        Long previousCategoryId = product.getSnapshotCategoryId();
+        Long previousPrice = product.getSnapshotPrice();
+        Long categoryId = categoryId(product);
+
+        if (!Objects.equals(previousCategoryId, categoryId)) {
+            if (previousCategoryId != null) {
+                categoryStatsService.productRemoved(previousCategoryId, product.getId(), previousPrice);
+            }
+            if (categoryId != null) {
+                categoryStatsService.productAdded(categoryId, product.getPrice());
+            }
+        } else if (categoryId != null && !Objects.equals(previousPrice, product.getPrice())) {
+            categoryStatsService.productRepriced(categoryId, product.getId(), previousPrice, product.getPrice());
+        }
+        product.snapshot();
+    }
+
+    @PostRemove
+    void removed(Product product) {
+        Long categoryId = product.getSnapshotCategoryId() != null ? product.getSnapshotCategoryId() : categoryId(product);
+        Long price = product.getSnapshotPrice() != null ? product.getSnapshotPrice() : product.getPrice();
+        if (categoryId != null) {
+            categoryStatsService.productRemoved(categoryId, product.getId(), price);
+        }
+    }
+
+    private static Long categoryId(Product product) {
+        return product.getCategory() == null ? null : product.getCategory().getId();
+    }
+}
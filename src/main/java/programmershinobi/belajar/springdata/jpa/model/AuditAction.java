@@ -0,0 +1,11 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+public enum AuditAction {
+
+    INSERT,
+    UPDATE,
+    DELETE,
+
+    // a @Modifying bulk query, entity_id is null and changes holds the method and its arguments
+    BULK
+}
@@ -0,0 +1,6 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+import java.time.Instant;
+
+public record AuditEvent(String entityType, Long entityId, AuditAction action, String changes, Instant changedAt) {
+}
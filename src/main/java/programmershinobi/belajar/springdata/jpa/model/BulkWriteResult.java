@@ -0,0 +1,18 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+import java.util.List;
+
+public record BulkWriteResult(List<ChunkResult> chunks) {
+
+    public int written() {
+        return chunks.stream().mapToInt(ChunkResult::written).sum();
+    }
+
+    public List<ChunkResult> failedChunks() {
+        return chunks.stream().filter(chunk -> !chunk.isSuccess()).toList();
+    }
+
+    public boolean isSuccess() {
+        return chunks.stream().allMatch(ChunkResult::isSuccess);
+    }
+}
@@ -0,0 +1,9 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+public record CacheStatistics(String region, long hits, long misses, long puts) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
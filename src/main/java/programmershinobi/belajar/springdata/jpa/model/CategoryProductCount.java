@@ -0,0 +1,3 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+public record CategoryProductCount(Long categoryId, Long productCount) { }
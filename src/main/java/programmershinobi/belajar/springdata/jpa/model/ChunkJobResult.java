@@ -0,0 +1,12 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+import java.util.List;
+
+// skippedChunks were completed by an earlier run of the same job, failedChunks are picked up again by the next run
+public record ChunkJobResult(String jobName, int totalChunks, int skippedChunks, int completedChunks,
+                             long processed, List<IdRange> failedChunks) {
+
+    public boolean isComplete() {
+        return failedChunks.isEmpty();
+    }
+}
@@ -0,0 +1,9 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+// failure is null when the chunk committed; attempts counts the retries of transient failures too
+public record ChunkResult(int index, int size, int attempts, int written, String failure) {
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,9 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+// Inclusive id bounds, both null when there are no rows
+public record IdRange(Long from, Long to) {
+
+    public boolean isEmpty() {
+        return from == null || to == null || from > to;
+    }
+}
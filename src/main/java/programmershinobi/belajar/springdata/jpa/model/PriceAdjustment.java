@@ -0,0 +1,17 @@
+package programmershinobi.belajar.springdata.jpa.model;
+
+public record PriceAdjustment(Type type, long value) {
+
+    public enum Type {
+        ABSOLUTE,
+        PERCENT
+    }
+
+    public static PriceAdjustment absolute(long amount) {
+        return new PriceAdjustment(Type.ABSOLUTE, amount);
+    }
+
+    public static PriceAdjustment percent(long percent) {
+        return new PriceAdjustment(Type.PERCENT, percent);
+    }
+}
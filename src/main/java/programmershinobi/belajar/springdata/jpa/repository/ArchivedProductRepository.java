@@ -0,0 +1,27 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.ArchivedProduct;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+
+    <T> List<T> findAllByCategory_Name(String name, Class<T> tClass);
+
+    Page<ArchivedProduct> findAllByCategory_Name(String name, Pageable pageable);
+
+    // WHERE created_date >= ? AND created_date < ?, only the partitions of that period are read
+    Page<ArchivedProduct> findAllByCreatedDateGreaterThanEqualAndCreatedDateLessThan(Instant from, Instant to, Pageable pageable);
+
+    Long countByCategory_Name(String name);
+
+    boolean existsByName(String name);
+}
@@ -0,0 +1,16 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.AuditLog;
+
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+
+    // WHERE entity_type = ? AND entity_id = ? ORDER BY id DESC
+    List<AuditLog> findAllByEntityTypeAndEntityIdOrderByIdDesc(String entityType, Long entityId);
+}
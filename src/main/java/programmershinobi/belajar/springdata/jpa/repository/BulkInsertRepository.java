@@ -0,0 +1,14 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BulkInsertRepository<T> {
+
+    // INSERT ... in JDBC batches of hibernate.jdbc.batch_size, flush() and clear() after each batch
+    @Transactional
+    int bulkInsert(Iterable<T> entities);
+
+    // INSERT ... in batches of batchSize
+    @Transactional
+    int bulkInsert(Iterable<T> entities, int batchSize);
+}
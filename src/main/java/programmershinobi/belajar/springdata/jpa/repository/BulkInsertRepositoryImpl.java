@@ -0,0 +1,60 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.service.CategoryStatsService;
+
+public class BulkInsertRepositoryImpl<T> implements BulkInsertRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int defaultBatchSize;
+
+    @Override
+    @Transactional
+    public int bulkInsert(Iterable<T> entities) {
+        return bulkInsert(entities, defaultBatchSize);
+    }
+
+    @Override
+    @Transactional
+    public int bulkInsert(Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+
+        try {
+            // category_stats gets one aggregated update per category instead of an upsert per inserted product
+            return categoryStatsService.batched(() -> {
+                int total = 0;
+                for (T entity : entities) {
+                    entityManager.persist(entity);
+                    total++;
+
+                    if (total % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return total;
+            });
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+}
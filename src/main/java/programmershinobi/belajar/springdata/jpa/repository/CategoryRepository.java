@@ -1,19 +1,26 @@
 package programmershinobi.belajar.springdata.jpa.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import programmershinobi.belajar.springdata.jpa.entity.Category;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+@Transactional(readOnly = true)
+public interface CategoryRepository extends JpaRepository<Category, Long>, BulkInsertRepository<Category> {
 
     // WHERE name = ?
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findFirstByNameEquals(String name);
 
     // WHERE name like ?
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findAllByNameLike(String name);
 
     // WHERE name = ?
@@ -0,0 +1,30 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.CategoryStats;
+import programmershinobi.belajar.springdata.jpa.model.CategoryProductCount;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Long> {
+
+    // WHERE category_id = (SELECT id FROM categories WHERE name = ?), a primary key lookup instead of COUNT(*)
+    @Query("SELECT s FROM CategoryStats s, Category c WHERE c.id = s.categoryId AND c.name = :name")
+    List<CategoryStats> findAllByCategoryName(@Param("name") String name);
+
+    default long countProductsByCategoryName(String name) {
+        return findAllByCategoryName(name).stream().mapToLong(CategoryStats::getProductCount).sum();
+    }
+
+    // one primary key lookup per category, none of the Category.products collections is touched
+    @Query("SELECT new programmershinobi.belajar.springdata.jpa.model.CategoryProductCount(s.categoryId, s.productCount) " +
+            "FROM CategoryStats s WHERE s.categoryId IN :categoryIds")
+    List<CategoryProductCount> findAllProductCountsByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+}
@@ -0,0 +1,10 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+public enum CountMode {
+
+    // run the count query for every page
+    EXACT,
+
+    // skip the count query on short pages, otherwise count once per search term and keep it for a TTL
+    CACHED
+}
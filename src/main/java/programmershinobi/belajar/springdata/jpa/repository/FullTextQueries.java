@@ -0,0 +1,25 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+public final class FullTextQueries {
+
+    private FullTextQueries() {
+    }
+
+    // "dell lat" -> "+dell* +lat*", every word must match as a prefix; operators typed by the user are dropped
+    public static String toBooleanQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        StringJoiner query = new StringJoiner(" ");
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty()) {
+                query.add("+" + word + "*");
+            }
+        }
+        return query.toString();
+    }
+}
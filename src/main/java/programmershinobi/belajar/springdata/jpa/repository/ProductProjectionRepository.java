@@ -0,0 +1,12 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ProductProjectionRepository {
+
+    // SELECT new T(p.component1, p.component2, ...) FROM Product p WHERE p.name LIKE ?
+    @Transactional(readOnly = true)
+    <T extends Record> List<T> findAllProjectedByNameLike(String name, Class<T> type);
+}
@@ -0,0 +1,44 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    private final Map<Class<?>, String> queries = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends Record> List<T> findAllProjectedByNameLike(String name, Class<T> type) {
+        return entityManager.createQuery(queries.computeIfAbsent(type, this::createQuery), type)
+                .setParameter("name", name)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    // only the record components are selected, no Product or Category is ever hydrated
+    private String createQuery(Class<?> type) {
+        EntityType<Product> product = entityManager.getMetamodel().entity(Product.class);
+
+        StringJoiner columns = new StringJoiner(", ", "SELECT new " + type.getName() + "(", ")");
+        for (RecordComponent component : type.getRecordComponents()) {
+            // throws IllegalArgumentException when the component is not a Product attribute
+            product.getSingularAttribute(component.getName());
+            columns.add("p." + component.getName());
+        }
+        return columns + " FROM Product p WHERE p.name LIKE :name";
+    }
+}
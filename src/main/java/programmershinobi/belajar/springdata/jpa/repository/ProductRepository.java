@@ -1,53 +1,189 @@
 package programmershinobi.belajar.springdata.jpa.repository;
 
 import jakarta.persistence.LockModeType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import programmershinobi.belajar.springdata.jpa.entity.Category;
 import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.IdRange;
 import programmershinobi.belajar.springdata.jpa.model.ProductPrice;
 import programmershinobi.belajar.springdata.jpa.model.SimpleProduct;
+import programmershinobi.belajar.springdata.jpa.specification.ProductSpecifications;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+@Transactional(readOnly = true)
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        BulkInsertRepository<Product>, ProductSearchRepository, ProductProjectionRepository {
 
     <T> List<T> findAllByNameLike(String name, Class<T> tClass);
 
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Product> findFirstByIdEquals(Long id);
 
     Slice<Product> findAllByCategory(Category category, Pageable pageable);
 
+    // bounded alternative to Category.getProducts()
+    Page<Product> findAllByCategory_Id(Long categoryId, Pageable pageable);
+
+    // WHERE category_id = ? AND (sort key, id) > (?, ?) ORDER BY sort key, id LIMIT ?
+    Window<Product> findAllByCategory(Category category, ScrollPosition position, Sort sort, Limit limit);
+
+    // server-side cursor (useCursorFetch), rows are not tracked for dirty checking
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     Stream<Product> streamAllByCategory(Category category);
 
+    // id bounds that chunked jobs split into ranges
+    @Query("SELECT new programmershinobi.belajar.springdata.jpa.model.IdRange(MIN(p.id), MAX(p.id)) " +
+            "FROM Product p WHERE p.category = :category")
+    IdRange findIdRangeByCategory(@Param("category") Category category);
+
+    @Query("SELECT new programmershinobi.belajar.springdata.jpa.model.IdRange(MIN(p.id), MAX(p.id)) FROM Product p")
+    IdRange findIdRange();
+
+    // WHERE category_id = ? AND id BETWEEN ? AND ? ORDER BY id, a range scan of the category_id index (which ends in id)
+    List<Product> findAllByCategoryAndIdBetweenOrderById(Category category, Long from, Long to);
+
+    List<Product> findAllByIdBetweenOrderById(Long from, Long to);
+
+    @Transactional
     @Modifying
+    @ProductWriteKey(argument = "name", kind = ProductWriteKey.Kind.PRODUCT_NAME)
     @Query("DELETE FROM Product p WHERE p.name = :name")
     int deleteProductUsingName(@Param("name") String name);
 
+    @Transactional
     @Modifying
-    @Query("UPDATE Product p SET p.price = 0 WHERE p.id = :id")
+    @ProductWriteKey(argument = "id", kind = ProductWriteKey.Kind.PRODUCT_ID)
+    @Query("UPDATE Product p SET p.price = 0, p.version = p.version + 1 WHERE p.id = :id")
     int updateProductPriceToZero(@Param("id") Long id);
 
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "names", kind = ProductWriteKey.Kind.PRODUCT_NAME)
+    @Query("DELETE FROM Product p WHERE p.name IN :names")
+    int deleteProductsUsingNames(@Param("names") Collection<String> names);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "categoryId", kind = ProductWriteKey.Kind.CATEGORY_ID)
+    @Query("DELETE FROM Product p WHERE p.category.id = :categoryId")
+    int deleteProductsUsingCategoryId(@Param("categoryId") Long categoryId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "categoryId", kind = ProductWriteKey.Kind.CATEGORY_ID)
+    @Query("UPDATE Product p SET p.price = p.price + :amount, p.version = p.version + 1 " +
+            "WHERE p.category.id = :categoryId")
+    int addProductPriceByCategoryId(@Param("categoryId") Long categoryId, @Param("amount") long amount);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "categoryId", kind = ProductWriteKey.Kind.CATEGORY_ID)
+    @Query("UPDATE Product p SET p.price = p.price + (p.price * :percent) / 100, p.version = p.version + 1 " +
+            "WHERE p.category.id = :categoryId")
+    int addProductPricePercentByCategoryId(@Param("categoryId") Long categoryId, @Param("percent") long percent);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "ids", kind = ProductWriteKey.Kind.PRODUCT_ID)
+    @Query("UPDATE Product p SET p.price = p.price + :amount, p.version = p.version + 1 WHERE p.id IN :ids")
+    int addProductPriceByIds(@Param("ids") Collection<Long> ids, @Param("amount") long amount);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "ids", kind = ProductWriteKey.Kind.PRODUCT_ID)
+    @Query("UPDATE Product p SET p.price = p.price + (p.price * :percent) / 100, p.version = p.version + 1 " +
+            "WHERE p.id IN :ids")
+    int addProductPricePercentByIds(@Param("ids") Collection<Long> ids, @Param("percent") long percent);
+
     @Query(
             value = "SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name",
             countQuery = "SELECT COUNT(p) FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name"
     )
     Page<Product> searchProduct(@Param("name") String name, Pageable pageable);
 
+    @Query("SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name")
+    Slice<Product> searchProductSlice(@Param("name") String name, Pageable pageable);
+
+    // the two halves of searchProduct, so they can run concurrently
+    @Query("SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name")
+    List<Product> searchProductContent(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name")
+    long countSearchProduct(@Param("name") String name);
+
+    @EntityGraph(attributePaths = "category")
+    @Query(
+            value = "SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name"
+    )
+    Page<Product> searchProductWithCategory(@Param("name") String name, Pageable pageable);
+
+    // MATCH ... AGAINST on the FULLTEXT indexes of products.name and categories.name, best match first;
+    // booleanQuery is passed as is, user input goes through fullTextSearchProduct(String, int, int)
+    @Query(
+            nativeQuery = true,
+            value = "SELECT p.* FROM products p JOIN (" +
+                    "SELECT hit.id, MAX(hit.score) AS score FROM (" +
+                    "SELECT id, MATCH(name) AGAINST(:query IN BOOLEAN MODE) AS score FROM products " +
+                    "WHERE MATCH(name) AGAINST(:query IN BOOLEAN MODE) " +
+                    "UNION ALL " +
+                    "SELECT pc.id, MATCH(c.name) AGAINST(:query IN BOOLEAN MODE) / 2 AS score " +
+                    "FROM categories c JOIN products pc ON pc.category_id = c.id " +
+                    "WHERE MATCH(c.name) AGAINST(:query IN BOOLEAN MODE)" +
+                    ") hit GROUP BY hit.id" +
+                    ") ranked ON ranked.id = p.id ORDER BY ranked.score DESC, p.id DESC",
+            countQuery = "SELECT COUNT(*) FROM (" +
+                    "SELECT id FROM products WHERE MATCH(name) AGAINST(:query IN BOOLEAN MODE) " +
+                    "UNION " +
+                    "SELECT pc.id FROM categories c JOIN products pc ON pc.category_id = c.id " +
+                    "WHERE MATCH(c.name) AGAINST(:query IN BOOLEAN MODE)" +
+                    ") hit"
+    )
+    Page<Product> fullTextSearchProductBoolean(@Param("query") String booleanQuery, Pageable pageable);
+
+    // relevance decides the order, so any sort on the pageable is ignored
+    default Page<Product> fullTextSearchProduct(String text, int page, int size) {
+        String booleanQuery = FullTextQueries.toBooleanQuery(text);
+        Pageable pageable = PageRequest.of(page, size);
+        if (booleanQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return fullTextSearchProductBoolean(booleanQuery, pageable);
+    }
+
+    // Limit.unlimited() returns every remaining row in one window
+    default Window<Product> searchProduct(String name, ScrollPosition position, Sort sort, Limit limit) {
+        return findBy(ProductSpecifications.nameOrCategoryNameLike(name), query -> {
+            FluentQuery.FetchableFluentQuery<Product> sorted = query.sortBy(sort);
+            return (limit.isLimited() ? sorted.limit(limit.max()) : sorted).scroll(position);
+        });
+    }
+
     List<Product> searchProductUsingName(@Param("name") String name, Pageable pageable);
 
+    // one DELETE statement instead of loading and removing every match
     @Transactional
-    int deleteByName(String name);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @ProductWriteKey(argument = "name", kind = ProductWriteKey.Kind.PRODUCT_NAME)
+    @Query("DELETE FROM Product p WHERE p.name = :name")
+    int deleteByName(@Param("name") String name);
 
     boolean existsByName(String name);
 
@@ -57,5 +193,23 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     List<Product> findAllByCategory_Name(String name, Sort sort);
 
+    <T> List<T> findAllByCategory_Name(String name, Class<T> tClass);
+
     Page<Product> findAllByCategory_Name(String name, Pageable pageable);
+
+    Window<Product> findAllByCategory_Name(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    // same as findAllByCategory_Name, but the category is fetched in the same SELECT
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllWithCategoryByCategory_Name(String name);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllWithCategoryByCategory_Name(String name, Sort sort);
+
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAllWithCategoryByCategory_Name(String name, Pageable pageable);
+
+    default List<Product> findAllWithCategory(Specification<Product> specification) {
+        return findBy(specification, query -> query.project("category").all());
+    }
 }
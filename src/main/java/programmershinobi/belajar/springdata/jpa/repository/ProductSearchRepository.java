@@ -0,0 +1,13 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+
+public interface ProductSearchRepository {
+
+    // WHERE p.name LIKE ? or p.category.name LIKE ?, with the total counted according to countMode
+    @Transactional(readOnly = true)
+    Page<Product> searchProduct(String name, Pageable pageable, CountMode countMode);
+}
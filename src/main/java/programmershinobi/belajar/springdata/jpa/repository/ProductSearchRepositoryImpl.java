@@ -0,0 +1,71 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final String SEARCH_QUERY =
+            "SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name";
+
+    private static final String COUNT_QUERY =
+            "SELECT COUNT(p) FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name";
+
+    private static final Pattern PROPERTY = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Product> searchProduct(String name, Pageable pageable, CountMode countMode) {
+        TypedQuery<Product> query = entityManager.createQuery(SEARCH_QUERY + orderBy(pageable.getSort()), Product.class)
+                .setParameter("name", name);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Product> content = query.getResultList();
+
+        LongSupplier count = () -> entityManager.createQuery(COUNT_QUERY, Long.class)
+                .setParameter("name", name)
+                .getSingleResult();
+
+        if (countMode == CountMode.CACHED) {
+            // no count query at all when the page is short, because the total follows from the offset
+            return PageableExecutionUtils.getPage(content, pageable, () -> searchCountCache.count(name, count));
+        }
+        return PageableExecutionUtils.getPage(content, pageable, count);
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            if (!PROPERTY.matcher(order.getProperty()).matches()) {
+                throw new IllegalArgumentException("Invalid sort property " + order.getProperty());
+            }
+            orders.add("p." + order.getProperty() + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orders.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Names the argument of a @Modifying ProductRepository query that selects the products it writes, so listeners can
+// resolve the affected rows before the statement runs; every @Modifying method of ProductRepository must carry one
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProductWriteKey {
+
+    // the @Param name of the argument, a single value or a collection
+    String argument();
+
+    Kind kind();
+
+    enum Kind {
+        CATEGORY_ID,
+        PRODUCT_ID,
+        PRODUCT_NAME
+    }
+}
@@ -0,0 +1,15 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import java.lang.reflect.Method;
+
+// Notified around a ProductRepository method that inserts, updates or deletes products, inside its transaction
+public interface ProductWriteListener {
+
+    // runs before the statement, e.g. to capture the rows it is about to touch; the returned callback,
+    // if any, runs after the method returned successfully
+    default Runnable beforeProductWrite(Method method, Object[] arguments) {
+        return null;
+    }
+
+    void afterProductWrite(Method method, Object[] arguments);
+}
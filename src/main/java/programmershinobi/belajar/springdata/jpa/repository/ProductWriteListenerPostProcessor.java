@@ -0,0 +1,78 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+// Adds an advice to the ProductRepository proxy that calls every ProductWriteListener after a write method,
+// including @Modifying bulk queries which bypass entity lifecycle callbacks.
+// Spring Data registers its transactional advice before these post-processors run, so listeners see the
+// repository method's transaction
+@Component
+public class ProductWriteListenerPostProcessor implements BeanPostProcessor {
+
+    private static final String[] WRITE_PREFIXES = {"save", "delete", "bulk", "update", "insert"};
+
+    private final ObjectProvider<ProductWriteListener> listeners;
+
+    public ProductWriteListenerPostProcessor(ObjectProvider<ProductWriteListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        if (ProductRepository.class.equals(repositoryInformation.getRepositoryInterface())) {
+                            proxyFactory.addAdvice(productWriteInterceptor());
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor productWriteInterceptor() {
+        return invocation -> {
+            Method method = invocation.getMethod();
+            if (!isWrite(method)) {
+                return invocation.proceed();
+            }
+
+            List<ProductWriteListener> writeListeners = listeners.orderedStream().toList();
+            List<Runnable> callbacks = new ArrayList<>();
+            for (ProductWriteListener listener : writeListeners) {
+                Runnable callback = listener.beforeProductWrite(method, invocation.getArguments());
+                if (callback != null) {
+                    callbacks.add(callback);
+                }
+            }
+
+            Object result = invocation.proceed();
+
+            callbacks.forEach(Runnable::run);
+            writeListeners.forEach(listener -> listener.afterProductWrite(method, invocation.getArguments()));
+            return result;
+        };
+    }
+
+    private static boolean isWrite(Method method) {
+        if (method.isAnnotationPresent(Modifying.class)) {
+            return true;
+        }
+        for (String prefix : WRITE_PREFIXES) {
+            if (method.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation tokens for keyset scrolling.
+ * <p>
+ * A token carries the keyset of the last row of a {@link Window}, so the next request can seek
+ * with {@code WHERE (sort key, id) > (?, ?)} instead of skipping rows with OFFSET. Keyset values may be numbers,
+ * strings or temporals (Instant, LocalDate, LocalDateTime, OffsetDateTime), e.g. a sort on createdDate.
+ */
+public final class ScrollTokens {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private ScrollTokens() {
+    }
+
+    // null when there is no next window
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        return encode(window.positionAt(window.size() - 1));
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset scroll positions can be encoded");
+        }
+
+        StringBuilder builder = new StringBuilder(keyset.scrollsForward() ? "F" : "B");
+        for (Map.Entry<String, ?> key : keyset.getKeys().entrySet()) {
+            builder.append('&')
+                    .append(URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(encodeValue(key.getValue()));
+        }
+        return ENCODER.encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null or blank token means the first window
+    public static ScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Invalid scroll token", exception);
+        }
+
+        String[] parts = decoded.split("&");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            int separator = parts[i].indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Invalid scroll token");
+            }
+            keys.put(URLDecoder.decode(parts[i].substring(0, separator), StandardCharsets.UTF_8),
+                    decodeValue(parts[i].substring(separator + 1)));
+        }
+
+        return switch (parts[0]) {
+            case "F" -> ScrollPosition.forward(keys);
+            case "B" -> ScrollPosition.backward(keys);
+            default -> throw new IllegalArgumentException("Invalid scroll token");
+        };
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "N:";
+        } else if (value instanceof Long) {
+            return "L:" + value;
+        } else if (value instanceof Integer) {
+            return "I:" + value;
+        } else if (value instanceof String) {
+            return "S:" + URLEncoder.encode((String) value, StandardCharsets.UTF_8);
+        } else if (value instanceof Instant) {
+            return "T:" + value;
+        } else if (value instanceof LocalDateTime) {
+            return "D:" + value;
+        } else if (value instanceof LocalDate) {
+            return "A:" + value;
+        } else if (value instanceof OffsetDateTime) {
+            return "O:" + value;
+        }
+        throw new IllegalArgumentException("Unsupported keyset value type " + value.getClass().getName());
+    }
+
+    private static Object decodeValue(String value) {
+        if (value.length() < 2 || value.charAt(1) != ':') {
+            throw new IllegalArgumentException("Invalid scroll token");
+        }
+
+        String raw = value.substring(2);
+        try {
+            return switch (value.charAt(0)) {
+                case 'N' -> null;
+                case 'L' -> Long.valueOf(raw);
+                case 'I' -> Integer.valueOf(raw);
+                case 'S' -> URLDecoder.decode(raw, StandardCharsets.UTF_8);
+                case 'T' -> Instant.parse(raw);
+                case 'D' -> LocalDateTime.parse(raw);
+                case 'A' -> LocalDate.parse(raw);
+                case 'O' -> OffsetDateTime.parse(raw);
+                default -> throw new IllegalArgumentException("Invalid scroll token");
+            };
+        } catch (NumberFormatException | DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid scroll token", exception);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Total counts of searchProduct per search term, dropped on every product insert or delete
+@Component
+public class SearchCountCache implements ProductWriteListener {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${app.search.count-cache.ttl:PT1M}")
+    private Duration ttl;
+
+    @Value("${app.search.count-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public long count(String term, LongSupplier counter) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(term);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.count;
+        }
+
+        long currentGeneration = generation.get();
+        long count = counter.getAsLong();
+
+        // a write that happened while counting makes the result stale, so it is returned but not kept
+        if (generation.get() == currentGeneration) {
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entries.put(term, new Entry(count, now + ttl.toNanos()));
+        }
+        return count;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public void afterProductWrite(Method method, Object[] arguments) {
+        invalidateAll();
+
+        // readers can still see the old rows until commit, so drop whatever they cached meanwhile
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll();
+                }
+            });
+        }
+    }
+
+    private record Entry(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,113 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.AuditAction;
+import programmershinobi.belajar.springdata.jpa.model.AuditEvent;
+import programmershinobi.belajar.springdata.jpa.repository.ProductWriteListener;
+
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transactional outbox for audit events.
+ * <p>
+ * Events are buffered in memory for the lifetime of the transaction and written as a single JDBC batch into
+ * audit_outbox just before commit, so they commit or roll back together with the change they describe.
+ * Copying them into audit_log, where the history indexes live, is left to {@link AuditOutboxRelay}.
+ */
+@Component
+public class AuditOutbox implements ProductWriteListener {
+
+    private static final int MAX_CHANGES_LENGTH = 2_000;
+
+    private static final String INSERT = "INSERT INTO audit_outbox (entity_type, entity_id, action, changes, changed_by, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectProvider<AuditorAware<String>> auditorAware;
+
+    public void record(Class<?> entityType, Long entityId, AuditAction action, String changes) {
+        AuditEvent event = new AuditEvent(entityType.getSimpleName(), entityId, action, truncate(changes), Instant.now());
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            write(List.of(event));
+            return;
+        }
+
+        Buffer buffer = (Buffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new Buffer();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        buffer.events.add(event);
+    }
+
+    // bulk queries skip entity callbacks, so they are recorded as one event per statement
+    @Override
+    public void afterProductWrite(Method method, Object[] arguments) {
+        if (method.isAnnotationPresent(Modifying.class)) {
+            record(Product.class, null, AuditAction.BULK, method.getName() + Arrays.deepToString(arguments));
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        AuditorAware<String> auditor = auditorAware.getIfAvailable();
+        String changedBy = auditor == null ? null : auditor.getCurrentAuditor().orElse(null);
+
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.entityType());
+            statement.setObject(2, event.entityId());
+            statement.setString(3, event.action().name());
+            statement.setString(4, event.changes());
+            statement.setString(5, changedBy);
+            statement.setTimestamp(6, Timestamp.from(event.changedAt()));
+        });
+    }
+
+    private static String truncate(String changes) {
+        return changes.length() > MAX_CHANGES_LENGTH ? changes.substring(0, MAX_CHANGES_LENGTH) : changes;
+    }
+
+    private class Buffer implements TransactionSynchronization {
+
+        private final List<AuditEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Hibernate only flushes on commit, after this callback, so pending changes are flushed first
+            // to get their events into the buffer
+            if (!readOnly) {
+                entityManager.flush();
+            }
+            if (!events.isEmpty()) {
+                write(events);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AuditOutbox.this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Collections;
+import java.util.List;
+
+// Background worker that moves committed audit events from audit_outbox into audit_log in batches
+@Service
+public class AuditOutboxRelay {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Value("${app.audit.relay-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.audit.relay-interval:PT1S}",
+            fixedDelayString = "${app.audit.relay-interval:PT1S}")
+    public int drain() {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionOperations.execute(transactionStatus -> relayBatch());
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    // SKIP LOCKED lets several instances drain concurrently without taking the same rows
+    private int relayBatch() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM audit_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED", Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] arguments = ids.toArray();
+
+        jdbcTemplate.update("INSERT INTO audit_log (id, entity_type, entity_id, action, changes, changed_by, changed_at) " +
+                "SELECT id, entity_type, entity_id, action, changes, changed_by, changed_at FROM audit_outbox " +
+                "WHERE id IN (" + in + ")", arguments);
+        jdbcTemplate.update("DELETE FROM audit_outbox WHERE id IN (" + in + ")", arguments);
+        return ids.size();
+    }
+}
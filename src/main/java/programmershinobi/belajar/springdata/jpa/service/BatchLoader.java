@@ -0,0 +1,123 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// DataLoader-style batching: keys requested within one window are loaded together by a single call of the batch
+// function, equal keys in a window share one result; a batch is dispatched early once it reaches maxBatchSize.
+// Batches are handed to the executor from a dispatcher thread, so an executor that blocks when it is saturated
+// holds back neither callers nor the window timer
+public class BatchLoader<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService timer;
+
+    private final ExecutorService dispatcher;
+
+    private final Object lock = new Object();
+
+    private Map<K, CompletableFuture<Optional<V>>> pending = new HashMap<>();
+
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "batch-loader-timer"));
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "batch-loader-dispatch"));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public CompletableFuture<Optional<V>> load(K key) {
+        CompletableFuture<Optional<V>> future;
+        Map<K, CompletableFuture<Optional<V>>> full = null;
+
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+
+                if (pending.size() >= maxBatchSize) {
+                    full = pending;
+                    pending = new HashMap<>();
+                } else if (pending.size() == 1) {
+                    timer.schedule(this::dispatchWindow, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void dispatchWindow() {
+        Map<K, CompletableFuture<Optional<V>>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<Optional<V>>> batch) {
+        try {
+            dispatcher.execute(() -> execute(batch));
+        } catch (RuntimeException exception) {
+            batch.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    private void execute(Map<K, CompletableFuture<Optional<V>>> batch) {
+        try {
+            executor.execute(() -> {
+                try {
+                    Map<K, V> values = batchFunction.apply(Set.copyOf(batch.keySet()));
+                    batch.forEach((key, future) -> future.complete(Optional.ofNullable(values.get(key))));
+                } catch (Throwable throwable) {
+                    batch.values().forEach(future -> future.completeExceptionally(throwable));
+                }
+            });
+        } catch (RuntimeException exception) {
+            batch.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        dispatchWindow();
+        // batches already handed over are still passed to the executor
+        dispatcher.shutdown();
+    }
+}
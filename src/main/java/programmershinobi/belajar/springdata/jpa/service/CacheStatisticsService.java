@@ -0,0 +1,35 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.model.CacheStatistics;
+
+@Service
+public class CacheStatisticsService {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public CacheStatistics categoryEntityCache() {
+        return toCacheStatistics(statistics().getDomainDataRegionStatistics(Category.class.getName()));
+    }
+
+    public CacheStatistics queryCache() {
+        return toCacheStatistics(statistics().getQueryRegionStatistics(QUERY_RESULTS_REGION));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static CacheStatistics toCacheStatistics(CacheRegionStatistics region) {
+        return new CacheStatistics(region.getRegionName(), region.getHitCount(), region.getMissCount(), region.getPutCount());
+    }
+}
@@ -1,6 +1,10 @@
 package programmershinobi.belajar.springdata.jpa.service;
 
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -8,9 +12,19 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.model.BulkWriteResult;
+import programmershinobi.belajar.springdata.jpa.model.ChunkResult;
 import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
 
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
 @Service
 public class CategoryService {
 
@@ -23,6 +37,82 @@ public class CategoryService {
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Value("${app.category.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.category.bulk.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.category.bulk.initial-backoff:50ms}")
+    private Duration initialBackoff;
+
+    @Value("${app.category.bulk.max-backoff:2s}")
+    private Duration maxBackoff;
+
+    private TransactionTemplate chunkTransactionTemplate;
+
+    private RetryExecutor retryExecutor;
+
+    @PostConstruct
+    void init() {
+        // every chunk commits on its own, so locks are held for one chunk at a time
+        chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        retryExecutor = new RetryExecutor(maxAttempts, initialBackoff, maxBackoff, CategoryService::isTransient);
+    }
+
+    public BulkWriteResult createCategories(List<String> names) {
+        return createCategories(names, chunkSize);
+    }
+
+    // a chunk that still fails after its retries is reported and skipped, the following chunks are still written
+    public BulkWriteResult createCategories(List<String> names, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+
+        List<ChunkResult> results = new ArrayList<>();
+        for (int from = 0, index = 0; from < names.size(); from += chunkSize, index++) {
+            List<String> chunk = names.subList(from, Math.min(from + chunkSize, names.size()));
+            results.add(writeChunk(index, chunk));
+        }
+        return new BulkWriteResult(results);
+    }
+
+    private ChunkResult writeChunk(int index, List<String> names) {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            int written = retryExecutor.execute(() -> {
+                attempts.incrementAndGet();
+                // new entities on every attempt, the ones from a rolled back attempt already carry an id
+                return chunkTransactionTemplate.execute(transactionStatus -> {
+                    List<Category> categories = new ArrayList<>(names.size());
+                    for (String name : names) {
+                        Category category = new Category();
+                        category.setName(name);
+                        categories.add(category);
+                    }
+                    return categoryRepository.bulkInsert(categories, names.size());
+                });
+            });
+            return new ChunkResult(index, names.size(), attempts.get(), written, null);
+        } catch (RuntimeException exception) {
+            log.warn("Category chunk {} failed after {} attempts", index, attempts.get(), exception);
+            return new ChunkResult(index, names.size(), attempts.get(), 0, String.valueOf(exception.getMessage()));
+        }
+    }
+
+    // deadlocks, lock wait timeouts and query timeouts; InnoDB rolls the whole transaction back on a deadlock,
+    // so the retry unit is the chunk transaction rather than a savepoint inside it
+    private static boolean isTransient(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void manual() {
         DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
         definition.setTimeout(10);
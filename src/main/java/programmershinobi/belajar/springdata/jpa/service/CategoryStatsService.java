@@ -0,0 +1,279 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductWriteKey;
+import programmershinobi.belajar.springdata.jpa.repository.ProductWriteListener;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Incremental maintenance of the category_stats aggregate.
+ * <p>
+ * Entity writes apply deltas through {@code ProductStatsListener}, on the connection of the current transaction.
+ * Min/max after a delete or reprice are re-read through the (category_id, price) index. Bulk
+ * {@code @Modifying} queries bypass entity callbacks, so the categories they touch are resolved from their
+ * {@link ProductWriteKey} before the statement and recomputed before the transaction commits; whole-table
+ * recomputes are left to the scheduled reconcile.
+ */
+@Slf4j
+@Service
+public class CategoryStatsService implements ProductWriteListener {
+
+    private static final String UPSERT = "INSERT INTO category_stats (category_id, product_count, sum_price, min_price, max_price) ";
+
+    private static final String AGGREGATE = "SELECT c.id, COUNT(p.id), COALESCE(SUM(p.price), 0), MIN(p.price), MAX(p.price) " +
+            "FROM categories c LEFT JOIN products p ON p.category_id = c.id ";
+
+    private static final String ON_DUPLICATE_REPLACE = " ON DUPLICATE KEY UPDATE product_count = VALUES(product_count), " +
+            "sum_price = VALUES(sum_price), min_price = VALUES(min_price), max_price = VALUES(max_price)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // per category {product count delta, price sum delta} while a batched() call runs on this thread
+    private final ThreadLocal<Map<Long, long[]>> batchedDeltas = new ThreadLocal<>();
+
+    /**
+     * Runs work that writes many products with the per-product updates collected instead of applied, then applies
+     * one aggregated update per touched category. The work has to flush its changes and run in a transaction.
+     */
+    public <T> T batched(Supplier<T> work) {
+        if (batchedDeltas.get() != null) {
+            return work.get();
+        }
+
+        Map<Long, long[]> deltas = new TreeMap<>();
+        batchedDeltas.set(deltas);
+        T result;
+        try {
+            result = work.get();
+        } finally {
+            batchedDeltas.remove();
+        }
+        // ascending order keeps the category_stats row locks in the same order across writers
+        deltas.forEach(this::applyDelta);
+        return result;
+    }
+
+    public void productAdded(Long categoryId, Long price) {
+        if (collect(categoryId, 1, orZero(price))) {
+            return;
+        }
+        jdbcTemplate.update(UPSERT + "VALUES (?, 1, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                        "product_count = product_count + 1, sum_price = sum_price + VALUES(sum_price), " +
+                        "min_price = LEAST(COALESCE(min_price, VALUES(min_price)), VALUES(min_price)), " +
+                        "max_price = GREATEST(COALESCE(max_price, VALUES(max_price)), VALUES(max_price))",
+                categoryId, price, price, price);
+    }
+
+    // the deleted row may still sit in the JDBC batch, so it is excluded by id
+    public void productRemoved(Long categoryId, Long productId, Long price) {
+        if (collect(categoryId, -1, -orZero(price))) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE category_stats SET product_count = product_count - 1, sum_price = sum_price - ?, " +
+                        "min_price = (SELECT MIN(p.price) FROM products p WHERE p.category_id = ? AND p.id <> ?), " +
+                        "max_price = (SELECT MAX(p.price) FROM products p WHERE p.category_id = ? AND p.id <> ?) " +
+                        "WHERE category_id = ?",
+                price, categoryId, productId, categoryId, productId, categoryId);
+    }
+
+    public void productRepriced(Long categoryId, Long productId, Long previousPrice, Long price) {
+        if (collect(categoryId, 0, orZero(price) - orZero(previousPrice))) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE category_stats SET sum_price = sum_price - ? + ?, " +
+                        "min_price = LEAST(?, COALESCE((SELECT MIN(p.price) FROM products p WHERE p.category_id = ? AND p.id <> ?), ?)), " +
+                        "max_price = GREATEST(?, COALESCE((SELECT MAX(p.price) FROM products p WHERE p.category_id = ? AND p.id <> ?), ?)) " +
+                        "WHERE category_id = ?",
+                previousPrice, price,
+                price, categoryId, productId, price,
+                price, categoryId, productId, price,
+                categoryId);
+    }
+
+    private boolean collect(Long categoryId, long count, long sum) {
+        Map<Long, long[]> deltas = batchedDeltas.get();
+        if (deltas == null) {
+            return false;
+        }
+        long[] delta = deltas.computeIfAbsent(categoryId, id -> new long[2]);
+        delta[0] += count;
+        delta[1] += sum;
+        return true;
+    }
+
+    private static long orZero(Long price) {
+        return price == null ? 0 : price;
+    }
+
+    // the batched writes are flushed, so min/max are re-read through the (category_id, price) index
+    private void applyDelta(Long categoryId, long[] delta) {
+        int updated = jdbcTemplate.update("UPDATE category_stats SET product_count = product_count + ?, sum_price = sum_price + ?, " +
+                        "min_price = (SELECT MIN(p.price) FROM products p WHERE p.category_id = ?), " +
+                        "max_price = (SELECT MAX(p.price) FROM products p WHERE p.category_id = ?) " +
+                        "WHERE category_id = ?",
+                delta[0], delta[1], categoryId, categoryId, categoryId);
+        if (updated == 0) {
+            refresh(categoryId);
+        }
+    }
+
+    public void categoryRemoved(Long categoryId) {
+        jdbcTemplate.update("DELETE FROM category_stats WHERE category_id = ?", categoryId);
+    }
+
+    @Transactional
+    public void refresh(Long categoryId) {
+        jdbcTemplate.update(UPSERT + AGGREGATE + "WHERE c.id = ? GROUP BY c.id" + ON_DUPLICATE_REPLACE, categoryId);
+    }
+
+    @Transactional
+    public void refreshAll() {
+        jdbcTemplate.update(UPSERT + AGGREGATE + "GROUP BY c.id" + ON_DUPLICATE_REPLACE);
+    }
+
+    // finds categories whose stats drifted from the products table and recomputes them
+    @Transactional
+    @Scheduled(initialDelayString = "${app.category-stats.reconcile-interval:PT10M}",
+            fixedDelayString = "${app.category-stats.reconcile-interval:PT10M}")
+    public int reconcile() {
+        List<Long> drifted = jdbcTemplate.queryForList("SELECT c.id FROM categories c " +
+                "LEFT JOIN category_stats s ON s.category_id = c.id " +
+                "LEFT JOIN (SELECT category_id, COUNT(*) AS product_count, SUM(price) AS sum_price, " +
+                "MIN(price) AS min_price, MAX(price) AS max_price FROM products GROUP BY category_id) a " +
+                "ON a.category_id = c.id " +
+                "WHERE s.category_id IS NULL " +
+                "OR s.product_count <> COALESCE(a.product_count, 0) " +
+                "OR s.sum_price <> COALESCE(a.sum_price, 0) " +
+                "OR COALESCE(s.min_price, -1) <> COALESCE(a.min_price, -1) " +
+                "OR COALESCE(s.max_price, -1) <> COALESCE(a.max_price, -1)", Long.class);
+
+        if (!drifted.isEmpty()) {
+            log.warn("category_stats drifted for {} categories, repairing", drifted.size());
+            drifted.forEach(this::refresh);
+        }
+        return drifted.size();
+    }
+
+    // bulk queries bypass entity callbacks, so the categories they touch are resolved before the statement
+    // and recomputed once before the transaction commits, however many IN chunks the write was split into
+    @Override
+    public Runnable beforeProductWrite(Method method, Object[] arguments) {
+        if (!method.isAnnotationPresent(Modifying.class)) {
+            return null;
+        }
+
+        Set<Long> categoryIds = affectedCategoryIds(method, arguments);
+        return categoryIds.isEmpty() ? null : () -> refreshBeforeCommit(categoryIds);
+    }
+
+    @Override
+    public void afterProductWrite(Method method, Object[] arguments) {
+    }
+
+    private Set<Long> affectedCategoryIds(Method method, Object[] arguments) {
+        ProductWriteKey key = method.getAnnotation(ProductWriteKey.class);
+        Object argument = arguments[keyArgumentIndex(method, key)];
+        if (argument == null) {
+            return Set.of();
+        }
+
+        return switch (key.kind()) {
+            case CATEGORY_ID -> new HashSet<>(values(argument).stream().map(Long.class::cast).toList());
+            case PRODUCT_ID -> categoryIdsOf("id", values(argument));
+            case PRODUCT_NAME -> categoryIdsOf("name", values(argument));
+        };
+    }
+
+    // every bulk query declares its key, a missing or misnamed one fails at startup instead of leaving stale stats
+    @PostConstruct
+    void verifyProductWriteKeys() {
+        for (Method method : ProductRepository.class.getMethods()) {
+            if (method.isAnnotationPresent(Modifying.class)) {
+                keyArgumentIndex(method, method.getAnnotation(ProductWriteKey.class));
+            }
+        }
+    }
+
+    private static int keyArgumentIndex(Method method, ProductWriteKey key) {
+        if (key == null) {
+            throw new IllegalStateException("@Modifying method " + method.getName() + " has no @ProductWriteKey");
+        }
+
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            if (param != null && param.value().equals(key.argument())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("@ProductWriteKey of " + method.getName() + " names no @Param(\"" + key.argument() + "\")");
+    }
+
+    private Set<Long> categoryIdsOf(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(values.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT DISTINCT category_id FROM products WHERE " + column +
+                " IN (" + placeholders + ") AND category_id IS NOT NULL", Long.class, values.toArray()));
+    }
+
+    private static Collection<?> values(Object argument) {
+        return argument instanceof Collection<?> collection ? collection : List.of(argument);
+    }
+
+    private void refreshBeforeCommit(Set<Long> categoryIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            categoryIds.forEach(this::refresh);
+            return;
+        }
+
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.categoryIds.addAll(categoryIds);
+    }
+
+    private class PendingRefresh implements TransactionSynchronization {
+
+        private final Set<Long> categoryIds = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // ascending order keeps the category_stats row locks in the same order across writers
+            categoryIds.forEach(CategoryStatsService.this::refresh);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CategoryStatsService.this);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import programmershinobi.belajar.springdata.jpa.config.ReadWriteRoutingDataSource;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces identical concurrent reads of hot keys into one database execution.
+ * <p>
+ * Lookups by name, existence and count checks are single-flight: callers arriving while the same query is running
+ * wait for its result. findCategoryById is batched: ids requested within app.coalescing.batch-window are
+ * multi-loaded together, taken from the second-level cache where present and one {@code WHERE id IN (...)} for
+ * the rest. Shared entities are detached and seen by several callers, so they must be treated as
+ * read-only; inside a transaction every call goes straight to the repository and returns managed entities.
+ */
+@Service
+public class CoalescingReadService implements DisposableBean {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final SingleFlight<String, Optional<Category>> categoryByName = new SingleFlight<>();
+
+    private final SingleFlight<String, Boolean> productExistsByName = new SingleFlight<>();
+
+    private final SingleFlight<String, Long> productCountByCategoryName = new SingleFlight<>();
+
+    private final SimpleAsyncTaskExecutor executor;
+
+    private final BatchLoader<Long, Category> categoryById;
+
+    public CoalescingReadService(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 @Value("${app.repository.executor.concurrency-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int concurrencyLimit,
+                                 @Value("${app.coalescing.batch-window:2ms}") Duration batchWindow,
+                                 @Value("${app.coalescing.max-batch-size:100}") int maxBatchSize) {
+        this.executor = new SimpleAsyncTaskExecutor("coalescing-");
+        this.executor.setVirtualThreads(virtualThreads);
+        this.executor.setConcurrencyLimit(concurrencyLimit);
+        this.categoryById = new BatchLoader<>(this::findCategoriesById, batchWindow, maxBatchSize, executor);
+    }
+
+    // a null id is rejected like CategoryRepository.findById does
+    public CompletableFuture<Optional<Category>> findCategoryByIdAsync(Long id) {
+        requireId(id);
+        return categoryById.load(id);
+    }
+
+    public Optional<Category> findCategoryById(Long id) {
+        requireId(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return categoryRepository.findById(id);
+        }
+        return SingleFlight.join(findCategoryByIdAsync(id));
+    }
+
+    public Optional<Category> findCategoryByName(String name) {
+        return coalesce(categoryByName, name, () -> categoryRepository.findFirstByNameEquals(name));
+    }
+
+    public boolean existsProductByName(String name) {
+        return coalesce(productExistsByName, name, () -> productRepository.existsByName(name));
+    }
+
+    public Long countProductsByCategoryName(String name) {
+        return coalesce(productCountByCategoryName, name, () -> productRepository.countByCategory_Name(name));
+    }
+
+    private static void requireId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id must not be null");
+        }
+    }
+
+    private static <V> V coalesce(SingleFlight<String, V> singleFlight, String key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        return singleFlight.execute(key, loader);
+    }
+
+    // unlike findAllById, a multi-load checks the second-level cache first and only queries the misses
+    private Map<Long, Category> findCategoriesById(Set<Long> ids) {
+        List<Category> categories = ReadWriteRoutingDataSource.readOnly(() -> entityManagerFactory.unwrap(SessionFactory.class)
+                .fromSession(session -> session.byMultipleIds(Category.class)
+                        .enableSessionCheck(true)
+                        .multiLoad(List.copyOf(ids))));
+        return categories.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    @Override
+    public void destroy() {
+        categoryById.close();
+        executor.close();
+    }
+}
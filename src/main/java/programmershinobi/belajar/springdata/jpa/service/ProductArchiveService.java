@@ -0,0 +1,119 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.model.SimpleProduct;
+import programmershinobi.belajar.springdata.jpa.repository.ArchivedProductRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+import programmershinobi.belajar.springdata.jpa.repository.SearchCountCache;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hot/archive tiering of products.
+ * <p>
+ * ProductRepository only ever reads the hot products table. Products created before the hot retention are moved to
+ * the partitioned products_archive by {@link #archive()}, and read from there only when a caller asks for it.
+ */
+@Slf4j
+@Service
+public class ProductArchiveService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Autowired
+    private SearchCountCache searchCountCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Value("${app.product.archive.hot-retention:P365D}")
+    private Duration hotRetention;
+
+    @Value("${app.product.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.product.archive.cron:0 0 3 * * *}")
+    public int archive() {
+        return archive(Instant.now().minus(hotRetention));
+    }
+
+    // moves every product created before cutoff, one transaction per batch so locks stay short
+    public int archive(Instant cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionOperations.execute(transactionStatus -> archiveBatch(Timestamp.from(cutoff)));
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            searchCountCache.invalidateAll();
+            log.info("Archived {} products created before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    public List<SimpleProduct> findAllByCategoryName(String name, boolean includeArchive) {
+        List<SimpleProduct> products = productRepository.findAllByCategory_Name(name, SimpleProduct.class);
+        if (!includeArchive) {
+            return products;
+        }
+
+        List<SimpleProduct> all = new ArrayList<>(products);
+        all.addAll(archivedProductRepository.findAllByCategory_Name(name, SimpleProduct.class));
+        return all;
+    }
+
+    public long countByCategoryName(String name, boolean includeArchive) {
+        long count = productRepository.countByCategory_Name(name);
+        return includeArchive ? count + archivedProductRepository.countByCategory_Name(name) : count;
+    }
+
+    public boolean existsByName(String name, boolean includeArchive) {
+        return productRepository.existsByName(name) || (includeArchive && archivedProductRepository.existsByName(name));
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        // ordered like the products_created_date index, so the range scan stops after batchSize rows
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM products WHERE created_date < ? ORDER BY created_date, id LIMIT ? FOR UPDATE",
+                Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] arguments = ids.toArray();
+
+        List<Long> categoryIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT category_id FROM products WHERE id IN (" + in + ")", Long.class, arguments);
+        jdbcTemplate.update("INSERT INTO products_archive (id, name, price, category_id, version, created_date, archived_at) " +
+                "SELECT id, name, price, category_id, version, created_date, CURRENT_TIMESTAMP(6) FROM products " +
+                "WHERE id IN (" + in + ")", arguments);
+        jdbcTemplate.update("DELETE FROM products WHERE id IN (" + in + ")", arguments);
+
+        // category_stats describes the hot table only
+        categoryIds.forEach(categoryStatsService::refresh);
+        return ids.size();
+    }
+}
@@ -0,0 +1,67 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.model.PriceAdjustment;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+// Set-based price and delete operations, each one UPDATE/DELETE statement (or one per IN chunk)
+@Service
+public class ProductBulkService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final int inChunkSize;
+
+    public ProductBulkService(@Value("${app.product.bulk.in-chunk-size:1000}") int inChunkSize) {
+        if (inChunkSize < 1) {
+            throw new IllegalArgumentException("inChunkSize must be greater than 0");
+        }
+        this.inChunkSize = inChunkSize;
+    }
+
+    @Transactional
+    public int reprice(Long categoryId, PriceAdjustment adjustment) {
+        return switch (adjustment.type()) {
+            case ABSOLUTE -> productRepository.addProductPriceByCategoryId(categoryId, adjustment.value());
+            case PERCENT -> productRepository.addProductPricePercentByCategoryId(categoryId, adjustment.value());
+        };
+    }
+
+    @Transactional
+    public int reprice(Collection<Long> ids, PriceAdjustment adjustment) {
+        return inChunks(ids, chunk -> switch (adjustment.type()) {
+            case ABSOLUTE -> productRepository.addProductPriceByIds(chunk, adjustment.value());
+            case PERCENT -> productRepository.addProductPricePercentByIds(chunk, adjustment.value());
+        });
+    }
+
+    @Transactional
+    public int deleteByNames(Collection<String> names) {
+        return inChunks(names, productRepository::deleteProductsUsingNames);
+    }
+
+    @Transactional
+    public int deleteByCategory(Long categoryId) {
+        return productRepository.deleteProductsUsingCategoryId(categoryId);
+    }
+
+    private <T> int inChunks(Collection<T> values, ToIntFunction<List<T>> statement) {
+        List<T> distinct = values.stream().distinct().toList();
+
+        int total = 0;
+        for (int from = 0; from < distinct.size(); from += inChunkSize) {
+            List<T> chunk = new ArrayList<>(distinct.subList(from, Math.min(from + inChunkSize, distinct.size())));
+            total += statement.applyAsInt(chunk);
+        }
+        return total;
+    }
+}
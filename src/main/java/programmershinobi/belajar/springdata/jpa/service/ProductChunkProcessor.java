@@ -0,0 +1,182 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.ChunkJobResult;
+import programmershinobi.belajar.springdata.jpa.model.IdRange;
+import programmershinobi.belajar.springdata.jpa.model.PriceAdjustment;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs a handler over the products of a category, or of the whole table, split into id ranges.
+ * <p>
+ * Every chunk is loaded, handled and checkpointed in its own transaction (and so its own persistence context)
+ * on a bounded executor. A failed chunk is reported and rolled back alone; running the job again under the same
+ * name skips the chunks already checkpointed, until {@link #reset(String)} is called.
+ * <p>
+ * Chunks are cells of a fixed id grid ({@code floor(id / rangeSize) * rangeSize}), so they do not move when the
+ * lowest id changes between runs. The range size is checkpointed with every chunk and a job cannot resume with
+ * another one.
+ */
+@Slf4j
+@Service
+public class ProductChunkProcessor implements DisposableBean {
+
+    @FunctionalInterface
+    public interface Handler {
+
+        // products are managed, changes are flushed before the chunk is checkpointed; returns the number of products handled
+        int handle(List<Product> products);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SimpleAsyncTaskExecutor executor;
+
+    @Value("${app.product.chunk.id-range-size:1000}")
+    private long idRangeSize;
+
+    public ProductChunkProcessor(PlatformTransactionManager transactionManager,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 @Value("${app.product.chunk.parallelism:4}") int parallelism) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // submitting blocks once every slot is busy, so at most parallelism chunks (and connections) are in use
+        this.executor = new SimpleAsyncTaskExecutor("product-chunk-");
+        this.executor.setVirtualThreads(virtualThreads);
+        this.executor.setConcurrencyLimit(parallelism);
+    }
+
+    public ChunkJobResult process(String jobName, Category category, Handler handler) {
+        return process(jobName, category, idRangeSize, handler);
+    }
+
+    // category null means every product
+    public ChunkJobResult process(String jobName, Category category, long rangeSize, Handler handler) {
+        IdRange bounds = category == null ? productRepository.findIdRange() : productRepository.findIdRangeByCategory(category);
+        List<IdRange> chunks = split(bounds, rangeSize);
+        Set<Long> checkpointed = checkpointed(jobName, rangeSize);
+
+        List<IdRange> pending = chunks.stream().filter(chunk -> !checkpointed.contains(chunk.from())).toList();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(pending.size());
+        for (IdRange chunk : pending) {
+            futures.add(CompletableFuture.supplyAsync(() -> processChunk(jobName, category, rangeSize, chunk, handler), executor));
+        }
+
+        long processed = 0;
+        int completed = 0;
+        List<IdRange> failed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                processed += futures.get(i).join();
+                completed++;
+            } catch (CompletionException exception) {
+                log.warn("Chunk {} of job {} failed", pending.get(i), jobName, exception.getCause());
+                failed.add(pending.get(i));
+            }
+        }
+        return new ChunkJobResult(jobName, chunks.size(), chunks.size() - pending.size(), completed, processed, failed);
+    }
+
+    public ChunkJobResult reprice(String jobName, Category category, PriceAdjustment adjustment) {
+        return process(jobName, category, products -> {
+            for (Product product : products) {
+                long price = product.getPrice();
+                product.setPrice(switch (adjustment.type()) {
+                    case ABSOLUTE -> price + adjustment.value();
+                    case PERCENT -> price + price * adjustment.value() / 100;
+                });
+            }
+            return products.size();
+        });
+    }
+
+    // forgets every checkpoint, the next run of the job starts from the first chunk
+    public int reset(String jobName) {
+        return jdbcTemplate.update("DELETE FROM product_chunk_checkpoints WHERE job_name = ?", jobName);
+    }
+
+    private int processChunk(String jobName, Category category, long rangeSize, IdRange chunk, Handler handler) {
+        return transactionTemplate.execute(transactionStatus -> {
+            List<Product> products = category == null ?
+                    productRepository.findAllByIdBetweenOrderById(chunk.from(), chunk.to()) :
+                    productRepository.findAllByCategoryAndIdBetweenOrderById(category, chunk.from(), chunk.to());
+
+            // category_stats gets one aggregated update per category for the chunk instead of one per product,
+            // so parallel chunks do not queue up (or deadlock) on the same stats rows
+            int handled = categoryStatsService.batched(() -> {
+                int count = handler.handle(products);
+                productRepository.flush();
+                return count;
+            });
+
+            // committed with the chunk's own changes, so a chunk is either done and checkpointed or neither
+            jdbcTemplate.update("INSERT INTO product_chunk_checkpoints (job_name, from_id, to_id, range_size, processed, completed_at) " +
+                    "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP(6))", jobName, chunk.from(), chunk.to(), rangeSize, handled);
+            return handled;
+        });
+    }
+
+    private Set<Long> checkpointed(String jobName, long rangeSize) {
+        List<Long> rangeSizes = jdbcTemplate.queryForList(
+                "SELECT DISTINCT range_size FROM product_chunk_checkpoints WHERE job_name = ?", Long.class, jobName);
+        if (rangeSizes.stream().anyMatch(checkpointedSize -> checkpointedSize != rangeSize)) {
+            throw new IllegalStateException("Job " + jobName + " was checkpointed with rangeSize " + rangeSizes +
+                    ", run it with the same rangeSize or reset it first");
+        }
+
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT from_id FROM product_chunk_checkpoints WHERE job_name = ?", Long.class, jobName));
+    }
+
+    private static List<IdRange> split(IdRange bounds, long rangeSize) {
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("rangeSize must be greater than 0");
+        }
+
+        List<IdRange> chunks = new ArrayList<>();
+        if (bounds == null || bounds.isEmpty()) {
+            return chunks;
+        }
+        // whole grid cells, the same ids always land in the same chunk whatever the current bounds are
+        for (long from = Math.floorDiv(bounds.from(), rangeSize) * rangeSize; from <= bounds.to(); from += rangeSize) {
+            if (from > Long.MAX_VALUE - rangeSize) {
+                chunks.add(new IdRange(from, Long.MAX_VALUE));
+                break;
+            }
+            chunks.add(new IdRange(from, from + rangeSize - 1));
+        }
+        return chunks;
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,91 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+
+public enum ProductExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        String header() {
+            return null;
+        }
+
+        @Override
+        String line(Product product) {
+            return "{\"id\":" + product.getId()
+                    + ",\"name\":" + json(product.getName())
+                    + ",\"price\":" + product.getPrice()
+                    + ",\"categoryId\":" + product.getCategory().getId() + "}";
+        }
+    },
+
+    CSV("text/csv", "csv") {
+        @Override
+        String header() {
+            return "id,name,price,category_id";
+        }
+
+        @Override
+        String line(Product product) {
+            return product.getId() + "," + csv(product.getName()) + "," + product.getPrice() + ","
+                    + product.getCategory().getId();
+        }
+    };
+
+    private final String contentType;
+
+    private final String extension;
+
+    ProductExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract String header();
+
+    abstract String line(Product product);
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
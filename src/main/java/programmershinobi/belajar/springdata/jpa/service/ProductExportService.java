@@ -0,0 +1,53 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // writes every product of the category without keeping more than one row in memory
+    @Transactional(readOnly = true)
+    public long export(Category category, ProductExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        String header = format.header();
+        if (header != null) {
+            writer.write(header);
+            writer.write('\n');
+        }
+
+        long total = 0;
+        try (Stream<Product> stream = productRepository.streamAllByCategory(category)) {
+            for (Product product : (Iterable<Product>) stream::iterator) {
+                writer.write(format.line(product));
+                writer.write('\n');
+                entityManager.detach(product);
+
+                if (++total % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return total;
+    }
+}
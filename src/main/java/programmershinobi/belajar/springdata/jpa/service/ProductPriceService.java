@@ -0,0 +1,61 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.time.Duration;
+import java.util.function.LongUnaryOperator;
+
+@Service
+public class ProductPriceService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RetryExecutor retryExecutor;
+
+    public ProductPriceService(PlatformTransactionManager transactionManager,
+                               @Value("${app.product.price-update.max-attempts:10}") int maxAttempts,
+                               @Value("${app.product.price-update.initial-backoff:5ms}") Duration initialBackoff,
+                               @Value("${app.product.price-update.max-backoff:200ms}") Duration maxBackoff) {
+        // every attempt needs a fresh transaction and persistence context to see the new version
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retryExecutor = new RetryExecutor(maxAttempts, initialBackoff, maxBackoff,
+                exception -> exception instanceof OptimisticLockingFailureException);
+    }
+
+    public Product updatePrice(Long id, Long price) {
+        return updatePrice(id, current -> price);
+    }
+
+    // optimistic, no row lock is held while the transaction runs; a concurrent update is retried
+    public Product updatePrice(Long id, LongUnaryOperator update) {
+        return retryExecutor.execute(() -> transactionTemplate.execute(transactionStatus -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new EmptyResultDataAccessException("Product " + id + " not found", 1));
+            product.setPrice(update.applyAsLong(product.getPrice()));
+            return productRepository.saveAndFlush(product);
+        }));
+    }
+
+    // pessimistic, SELECT ... FOR UPDATE blocks every other writer until commit
+    @Transactional
+    public Product updatePricePessimistic(Long id, LongUnaryOperator update) {
+        Product product = productRepository.findFirstByIdEquals(id)
+                .orElseThrow(() -> new EmptyResultDataAccessException("Product " + id + " not found", 1));
+        product.setPrice(update.applyAsLong(product.getPrice()));
+        return productRepository.save(product);
+    }
+}
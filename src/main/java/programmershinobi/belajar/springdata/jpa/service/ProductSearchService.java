@@ -0,0 +1,59 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+public class ProductSearchService implements DisposableBean {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final SimpleAsyncTaskExecutor executor;
+
+    // virtual threads need Java 21; the limit keeps fan-out from queueing on an exhausted Hikari pool
+    public ProductSearchService(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                @Value("${app.repository.executor.concurrency-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int concurrencyLimit) {
+        this.executor = new SimpleAsyncTaskExecutor("repository-");
+        this.executor.setVirtualThreads(virtualThreads);
+        this.executor.setConcurrencyLimit(concurrencyLimit);
+    }
+
+    // page query and count query run at the same time, each on its own connection
+    public CompletableFuture<Page<Product>> searchProductAsync(String name, Pageable pageable) {
+        CompletableFuture<List<Product>> content = CompletableFuture.supplyAsync(
+                () -> productRepository.searchProductContent(name, pageable), executor);
+        CompletableFuture<Long> total = CompletableFuture.supplyAsync(
+                () -> productRepository.countSearchProduct(name), executor);
+
+        return content.thenCombine(total, (products, count) -> new PageImpl<>(products, pageable, count));
+    }
+
+    public Page<Product> searchProduct(String name, Pageable pageable) {
+        try {
+            return searchProductAsync(name, pageable).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
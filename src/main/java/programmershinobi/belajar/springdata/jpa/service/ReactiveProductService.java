@@ -0,0 +1,188 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import programmershinobi.belajar.springdata.jpa.config.ReadWriteRoutingDataSource;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.ProductPrice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking read facade over JDBC.
+ * <p>
+ * Every subscription opens its own EntityManager and read-only transaction on a bounded scheduler, and closes them
+ * on complete, error or cancel. Rows are pulled from the server-side cursor only as the subscriber requests them,
+ * so a slow consumer holds back the cursor instead of filling the heap. An open cursor keeps its connection, so
+ * cursors also need one of a fixed number of connection permits, kept below the pool size so other traffic still
+ * gets a connection; further subscribers wait for a permit. Connections are routed like a read-only transaction.
+ * Emitted products are detached, with a lazy category.
+ */
+@Service
+public class ReactiveProductService implements DisposableBean {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.product.flux.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.product.flux.connection-timeout:30s}")
+    private Duration connectionTimeout;
+
+    private final Scheduler scheduler;
+
+    private final Semaphore connections;
+
+    public ReactiveProductService(@Value("${app.product.flux.concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int concurrency,
+                                  @Value("${app.product.flux.queued-subscriptions:1000}") int queuedSubscriptions,
+                                  @Value("${app.product.flux.max-connections:5}") int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be greater than 0");
+        }
+        this.scheduler = Schedulers.newBoundedElastic(concurrency, queuedSubscriptions, "product-flux");
+        this.connections = new Semaphore(maxConnections, true);
+    }
+
+    public Flux<Product> findAllByCategory(Long categoryId) {
+        return stream(entityManager -> entityManager.createQuery(
+                        "SELECT p FROM Product p WHERE p.category.id = :categoryId ORDER BY p.id", Product.class)
+                .setParameter("categoryId", categoryId));
+    }
+
+    public Flux<ProductPrice> findAllPricesByCategory(Long categoryId) {
+        return stream(entityManager -> entityManager.createQuery(
+                        "SELECT new programmershinobi.belajar.springdata.jpa.model.ProductPrice(p.id, p.price) " +
+                                "FROM Product p WHERE p.category.id = :categoryId ORDER BY p.id", ProductPrice.class)
+                .setParameter("categoryId", categoryId));
+    }
+
+    public Flux<Product> searchProduct(String name) {
+        return stream(entityManager -> entityManager.createQuery(
+                        "SELECT p FROM Product p WHERE p.name LIKE :name or p.category.name LIKE :name ORDER BY p.id", Product.class)
+                .setParameter("name", name));
+    }
+
+    private <T> Flux<T> stream(Function<EntityManager, TypedQuery<T>> query) {
+        // waiting for a permit blocks, so it happens off the product-flux workers, where it could stall a worker
+        // that also serves an open cursor
+        return Mono.fromCallable(this::acquire)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnDiscard(Permit.class, Permit::release)
+                .flatMapMany(permit -> Flux.defer(() -> !permit.claim() ? Flux.<T>empty() : Flux.using(
+                                        () -> open(query, permit),
+                                        cursor -> Flux.fromStream(cursor.stream).map(cursor::detach),
+                                        Cursor::close))
+                        // subscription, requests and cancellation all run on one worker, which owns the EntityManager
+                        .subscribeOn(scheduler)
+                        // cancelled before a cursor took the permit
+                        .doFinally(signal -> permit.releaseUnclaimed()));
+    }
+
+    private Permit acquire() throws InterruptedException {
+        if (!connections.tryAcquire(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No connection for a Flux read within " + connectionTimeout);
+        }
+        return new Permit();
+    }
+
+    private <T> Cursor<T> open(Function<EntityManager, TypedQuery<T>> query, Permit permit) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            // the connection is fetched by the query, the resource-local transaction never marks itself read-only
+            Stream<T> stream = ReadWriteRoutingDataSource.readOnly(() -> {
+                entityManager.getTransaction().begin();
+                return query.apply(entityManager)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream();
+            });
+            return new Cursor<>(entityManager, stream, permit);
+        } catch (RuntimeException exception) {
+            try {
+                close(entityManager);
+            } finally {
+                permit.release();
+            }
+            throw exception;
+        }
+    }
+
+    private static void close(EntityManager entityManager) {
+        try {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    // a connection permit, held by the subscription until a cursor claims it, then by the cursor
+    private final class Permit {
+
+        private static final int ACQUIRED = 0, CLAIMED = 1, RELEASED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(ACQUIRED);
+
+        boolean claim() {
+            return state.compareAndSet(ACQUIRED, CLAIMED);
+        }
+
+        void releaseUnclaimed() {
+            if (state.compareAndSet(ACQUIRED, RELEASED)) {
+                connections.release();
+            }
+        }
+
+        void release() {
+            if (state.getAndSet(RELEASED) != RELEASED) {
+                connections.release();
+            }
+        }
+    }
+
+    private record Cursor<T>(EntityManager entityManager, Stream<T> stream, Permit permit) {
+
+        T detach(T row) {
+            if (row instanceof Product) {
+                entityManager.detach(row);
+            }
+            return row;
+        }
+
+        void close() {
+            try {
+                stream.close();
+            } finally {
+                try {
+                    ReactiveProductService.close(entityManager);
+                } finally {
+                    permit.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Re-runs an action on retryable failures with exponential backoff and jitter
+public class RetryExecutor {
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final Predicate<Throwable> retryable;
+
+    public RetryExecutor(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Predicate<Throwable> retryable) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retryable = retryable;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException exception) {
+                if (attempt >= maxAttempts || !retryable.test(exception)) {
+                    throw exception;
+                }
+                sleep(backoffNanos(attempt), exception);
+            }
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long backoff = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        if (backoff <= 0) {
+            return 0;
+        }
+        // jitter keeps writers that failed together from retrying together
+        return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+    }
+
+    private static void sleep(long nanos, RuntimeException cause) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            cause.addSuppressed(exception);
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package programmershinobi.belajar.springdata.jpa.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+// Values are always bound as parameters (hibernate.criteria.value_handling_mode=bind), so repeated filters of the
+// same shape reuse one cached SQL translation. An IN list becomes one parameter per value, its size is part of the shape
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // WHERE p.name LIKE ? OR p.category.name LIKE ?
+    public static Specification<Product> nameOrCategoryNameLike(String name) {
+        return (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.like(root.get("name"), name),
+                criteriaBuilder.like(root.get("category").get("name"), name)
+        );
+    }
+
+    // WHERE p.name IN (?, ?, ...), no rows for an empty collection
+    public static Specification<Product> nameIn(Collection<String> names) {
+        List<String> distinct = names.stream().distinct().toList();
+        return (root, criteriaQuery, criteriaBuilder) -> distinct.isEmpty() ?
+                criteriaBuilder.disjunction() :
+                root.get("name").in(distinct);
+    }
+
+    // WHERE p.price >= ? AND p.price <= ?, a null bound is left open
+    public static Specification<Product> priceBetween(Long min, Long max) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            if (min != null && max != null) {
+                return criteriaBuilder.between(root.get("price"), min, max);
+            }
+            if (min != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("price"), min);
+            }
+            if (max != null) {
+                return criteriaBuilder.lessThanOrEqualTo(root.get("price"), max);
+            }
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    // WHERE p.category_id = ?, compares the foreign key without joining categories
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.equal(root.get("category").get("id"), categoryId);
+    }
+}
@@ -0,0 +1,85 @@
+-- schema as built by database.sql, existing databases are baselined at 1.1 instead of running this
+
+CREATE TABLE categories
+(
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    name               VARCHAR(100) NOT NULL,
+    created_date       TIMESTAMP,
+    last_modified_date TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE products
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(100) NOT NULL,
+    price       BIGINT       NOT NULL,
+    category_id BIGINT       NOT NULL,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_categories FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE INDEX products_category_id_price ON products (category_id, price);
+
+CREATE TABLE id_generators
+(
+    name     VARCHAR(100) NOT NULL,
+    next_val BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'categories', COALESCE(MAX(id), 0) + 1
+FROM categories;
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'products', COALESCE(MAX(id), 0) + 1
+FROM products;
+
+CREATE TABLE category_stats
+(
+    category_id   BIGINT NOT NULL,
+    product_count BIGINT NOT NULL,
+    sum_price     BIGINT NOT NULL,
+    min_price     BIGINT,
+    max_price     BIGINT,
+    PRIMARY KEY (category_id),
+    CONSTRAINT fk_category_stats_categories FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE audit_outbox
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id   BIGINT,
+    action      VARCHAR(20)  NOT NULL,
+    changes     TEXT,
+    changed_by  VARCHAR(100),
+    changed_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE audit_log
+(
+    id          BIGINT       NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id   BIGINT,
+    action      VARCHAR(20)  NOT NULL,
+    changes     TEXT,
+    changed_by  VARCHAR(100),
+    changed_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX audit_log_entity ON audit_log (entity_type, entity_id, id);
+
+CREATE TABLE product_chunk_checkpoints
+(
+    job_name     VARCHAR(100) NOT NULL,
+    from_id      BIGINT       NOT NULL,
+    to_id        BIGINT       NOT NULL,
+    processed    INT          NOT NULL,
+    completed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (job_name, from_id)
+);
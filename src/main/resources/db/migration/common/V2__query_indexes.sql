@@ -0,0 +1,10 @@
+-- categories.name: findFirstByNameEquals, findAllByNameLike (prefix), and the join side of
+-- countByCategory_Name / findAllByCategory_Name
+CREATE INDEX categories_name ON categories (name);
+
+-- products.name: existsByName, deleteByName, searchProductUsingName, deleteProductsUsingNames
+CREATE INDEX products_name ON products (name);
+
+-- products by category in id order: findAllByCategory (Slice/Window), streamAllByCategory,
+-- findAllByCategoryAndIdBetweenOrderById, findIdRangeByCategory; InnoDB also uses it for the foreign key
+CREATE INDEX products_category_id_id ON products (category_id, id);
@@ -0,0 +1,5 @@
+-- creation time decides when a product is cold enough for products_archive, existing rows count from now
+ALTER TABLE products
+    ADD COLUMN created_date TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+CREATE INDEX products_created_date ON products (created_date);
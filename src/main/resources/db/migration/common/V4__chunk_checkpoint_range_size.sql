@@ -0,0 +1,4 @@
+-- checkpoints are grid cells of range_size ids, a job can only resume with the size it was started with;
+-- rows written before the grid are left at 0 and have to be reset
+ALTER TABLE product_chunk_checkpoints
+    ADD COLUMN range_size BIGINT NOT NULL DEFAULT 0;
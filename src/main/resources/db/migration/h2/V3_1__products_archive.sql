@@ -0,0 +1,16 @@
+-- same columns and indexes as the MySQL table, without partitions
+CREATE TABLE products_archive
+(
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(100) NOT NULL,
+    price        BIGINT       NOT NULL,
+    category_id  BIGINT       NOT NULL,
+    version      BIGINT       NOT NULL,
+    created_date TIMESTAMP(6) NOT NULL,
+    archived_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, created_date)
+);
+
+CREATE INDEX products_archive_category_id_id ON products_archive (category_id, id);
+
+CREATE INDEX products_archive_name ON products_archive (name);
@@ -0,0 +1,7 @@
+-- used by ProductRepository.fullTextSearchProduct, MySQL only
+
+ALTER TABLE products
+    ADD FULLTEXT INDEX ft_products_name (name);
+
+ALTER TABLE categories
+    ADD FULLTEXT INDEX ft_categories_name (name);
@@ -0,0 +1,24 @@
+-- cold products moved out of products by ProductArchiveService, one partition per creation year.
+-- products itself stays unpartitioned: InnoDB partitioned tables allow neither foreign keys nor FULLTEXT indexes.
+-- Before a year starts, split pmax: ALTER TABLE products_archive REORGANIZE PARTITION pmax INTO (...);
+-- a whole year is dropped with ALTER TABLE products_archive DROP PARTITION.
+CREATE TABLE products_archive
+(
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(100) NOT NULL,
+    price        BIGINT       NOT NULL,
+    category_id  BIGINT       NOT NULL,
+    version      BIGINT       NOT NULL,
+    created_date DATETIME(6)  NOT NULL,
+    archived_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id, created_date),
+    INDEX products_archive_category_id_id (category_id, id),
+    INDEX products_archive_name (name)
+) ENGINE = InnoDB
+    PARTITION BY RANGE COLUMNS (created_date) (
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+        );
@@ -0,0 +1,48 @@
+package programmershinobi.belajar.springdata.jpa.actuator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HibernateStatisticsEndpointTest {
+
+    @Autowired
+    private HibernateStatisticsEndpoint hibernateStatisticsEndpoint;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statisticsAfterQuery() {
+        assertEquals(2, productRepository.findAllByCategory_Name("LAPTOP MAHAL").size());
+
+        Map<String, Object> statistics = hibernateStatisticsEndpoint.statistics();
+        assertTrue((Long) statistics.get("queries") > 0);
+        assertTrue((Long) statistics.get("statements") > 0);
+        // the slowest query so far, with its HQL
+        assertTrue((Long) statistics.get("queryMaxTimeMillis") >= 0);
+        assertNotNull(statistics.get("queryMaxTimeQuery"));
+        assertNotNull(statistics.get("categoryCache"));
+    }
+
+    @Test
+    void micrometerMetrics() {
+        productRepository.findAllByCategory_Name("LAPTOP MAHAL");
+
+        FunctionCounter statements = meterRegistry.find("hibernate.statements").tag("status", "prepared").functionCounter();
+        assertNotNull(statements);
+        assertTrue(statements.count() > 0);
+        assertNotNull(meterRegistry.find("hibernate.query.executions").functionCounter());
+    }
+}
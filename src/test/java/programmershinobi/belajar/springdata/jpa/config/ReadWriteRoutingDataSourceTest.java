@@ -0,0 +1,86 @@
+package programmershinobi.belajar.springdata.jpa.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = h2("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1");
+
+    private final DataSource replica = h2("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.clearPrimaryPin();
+    }
+
+    @Test
+    void writesGoToPrimary() throws SQLException {
+        DataSource dataSource = routing(replica, Duration.ZERO);
+        assertEquals("primary", database(dataSource));
+    }
+
+    @Test
+    void readOnlyGoesToReplica() throws SQLException {
+        DataSource dataSource = routing(replica, Duration.ZERO);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica", database(dataSource));
+    }
+
+    @Test
+    void readOnlyFallsBackToPrimaryWhenReplicaIsDown() throws SQLException {
+        DataSource dataSource = routing(h2("jdbc:h2:mem:missing;IFEXISTS=TRUE"), Duration.ZERO);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("primary", database(dataSource));
+    }
+
+    @Test
+    void readOnlyStaysOnPrimaryAfterWrite() throws SQLException {
+        DataSource dataSource = routing(replica, Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals("primary", database(dataSource));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("primary", database(dataSource));
+    }
+
+    private DataSource routing(DataSource replica, Duration primaryPinAfterWrite) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, primaryPinAfterWrite, Duration.ofSeconds(30)));
+    }
+
+    // the lazy proxy only fetches the physical connection here, like Hibernate on its first statement
+    private static String database(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            return url.substring(url.indexOf("mem:") + 4).split(";")[0];
+        }
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
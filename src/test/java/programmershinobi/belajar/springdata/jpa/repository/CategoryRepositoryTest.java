@@ -1,13 +1,27 @@
 package programmershinobi.belajar.springdata.jpa.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionOperations;
 import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.model.CacheStatistics;
+import programmershinobi.belajar.springdata.jpa.model.CategoryProductCount;
+import programmershinobi.belajar.springdata.jpa.service.CacheStatisticsService;
+import programmershinobi.belajar.springdata.jpa.service.CategoryStatsService;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +31,24 @@ class CategoryRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private CategoryStatsRepository categoryStatsRepository;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void insert() {
         Category category = new Category();
@@ -100,4 +132,81 @@ class CategoryRepositoryTest {
         assertEquals("LAPTOP MAHAL", categories.get(0).getName());
     }
 
-}
\ No newline at end of file
+    @Test
+    void secondLevelCache() {
+        categoryRepository.findById(1L).orElse(null);
+        CacheStatistics before = cacheStatisticsService.categoryEntityCache();
+
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        CacheStatistics after = cacheStatisticsService.categoryEntityCache();
+        assertEquals(before.hits() + 1, after.hits());
+        assertEquals(before.misses(), after.misses());
+    }
+
+    @Test
+    void queryCache() {
+        categoryRepository.findFirstByNameEquals("LAPTOP MAHAL").orElse(null);
+        CacheStatistics before = cacheStatisticsService.queryCache();
+
+        Category category = categoryRepository.findFirstByNameEquals("LAPTOP MAHAL").orElse(null);
+        assertNotNull(category);
+
+        CacheStatistics after = cacheStatisticsService.queryCache();
+        assertEquals(before.hits() + 1, after.hits());
+    }
+
+    @Test
+    void secondLevelCacheAuditUpdate() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+        Instant lastModifiedDate = category.getLastModifiedDate();
+
+        category.setName("LAPTOP MAHAL (Cache)");
+        category = categoryRepository.save(category);
+
+        Category cached = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(cached);
+        assertEquals("LAPTOP MAHAL (Cache)", cached.getName());
+        assertEquals(category.getLastModifiedDate(), cached.getLastModifiedDate());
+        assertNotEquals(lastModifiedDate, cached.getLastModifiedDate());
+        assertTrue(categoryRepository.findFirstByNameEquals("LAPTOP MAHAL").isEmpty());
+
+        cached.setName("LAPTOP MAHAL");
+        categoryRepository.save(cached);
+        assertTrue(categoryRepository.findFirstByNameEquals("LAPTOP MAHAL").isPresent());
+    }
+
+    @Test
+    void productsBatchFetch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            List<Category> categories = categoryRepository.findAll(PageRequest.of(0, 10, Sort.by("id"))).getContent();
+            assertTrue(categories.size() > 1);
+            categories.forEach(category -> assertFalse(Hibernate.isInitialized(category.getProducts())));
+
+            statistics.clear();
+            categories.get(0).getProducts().size();
+
+            // one IN query initialized the products of every category on the page
+            categories.forEach(category -> assertTrue(Hibernate.isInitialized(category.getProducts())));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
+    @Test
+    void productCountsWithoutCollections() {
+        categoryStatsService.reconcile();
+
+        List<Category> categories = categoryRepository.findAll(PageRequest.of(0, 10, Sort.by("id"))).getContent();
+        Map<Long, Long> counts = categoryStatsRepository.findAllProductCountsByCategoryIdIn(
+                        categories.stream().map(Category::getId).toList()).stream()
+                .collect(Collectors.toMap(CategoryProductCount::categoryId, CategoryProductCount::productCount));
+
+        assertEquals(categories.size(), counts.size());
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"), counts.get(1L));
+        categories.forEach(category -> assertFalse(Hibernate.isInitialized(category.getProducts())));
+    }
+}
@@ -1,18 +1,26 @@
 package programmershinobi.belajar.springdata.jpa.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.support.TransactionOperations;
 import programmershinobi.belajar.springdata.jpa.entity.Category;
 import programmershinobi.belajar.springdata.jpa.entity.Product;
 import programmershinobi.belajar.springdata.jpa.model.ProductPrice;
 import programmershinobi.belajar.springdata.jpa.model.SimpleProduct;
+import programmershinobi.belajar.springdata.jpa.specification.ProductSpecifications;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +38,12 @@ class ProductRepositoryTest {
     @Autowired
     private TransactionOperations transactionOperations;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void createProducts() {
         Category category = categoryRepository.findById(1L).orElse(null);
@@ -60,6 +74,55 @@ class ProductRepositoryTest {
         assertEquals("ADVAN", products.get(1).getName());
     }
 
+    @Test
+    void findByCategoryIdPage() {
+        Page<Product> page = productRepository.findAllByCategory_Id(1L, PageRequest.of(0, 1, Sort.by("id")));
+        assertEquals(1, page.getContent().size());
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"), page.getTotalElements());
+    }
+
+    @Test
+    void findByCategoryNameLazy() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            statistics.clear();
+            List<Product> products = productRepository.findAllByCategory_Name("LAPTOP MAHAL");
+            assertEquals(2, products.size());
+            products.forEach(product -> assertFalse(Hibernate.isInitialized(product.getCategory())));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
+    @Test
+    void findByCategoryNameWithCategory() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            statistics.clear();
+            List<Product> products = productRepository.findAllWithCategoryByCategory_Name(
+                    "LAPTOP MAHAL", Sort.by(Sort.Order.asc("id")));
+            assertEquals(2, products.size());
+            products.forEach(product -> assertEquals("LAPTOP MAHAL", product.getCategory().getName()));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
+    @Test
+    void specificationWithCategory() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Specification<Product> specification = (root, criteriaQuery, criteriaBuilder) ->
+                root.get("name").in("DELL", "ADVAN");
+
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            statistics.clear();
+            List<Product> products = productRepository.findAllWithCategory(specification);
+            assertEquals(2, products.size());
+            products.forEach(product -> assertTrue(Hibernate.isInitialized(product.getCategory())));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
     @Test
     void sort() {
         Sort sort = Sort.by(Sort.Order.desc("id"));
@@ -186,6 +249,73 @@ class ProductRepositoryTest {
         assertEquals(0, products.getTotalPages());
     }
 
+    @Test
+    void searchProductsCountMode() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Order.desc("id")));
+
+        Page<Product> exact = productRepository.searchProduct("%D%", pageable, CountMode.EXACT);
+        Page<Product> cached = productRepository.searchProduct("%D%", pageable, CountMode.CACHED);
+        assertEquals(exact.getTotalElements(), cached.getTotalElements());
+        assertEquals(2, cached.getTotalElements());
+        assertEquals("ADVAN", cached.getContent().get(0).getName());
+
+        // short page, total comes from the offset
+        cached = productRepository.searchProduct("DELL", PageRequest.of(0, 10), CountMode.CACHED);
+        assertEquals(1, cached.getTotalElements());
+
+        Slice<Product> slice = productRepository.searchProductSlice("%D%", pageable);
+        assertEquals(1, slice.getContent().size());
+        assertTrue(slice.hasNext());
+    }
+
+    @Test
+    void searchProductsCountCacheInvalidation() {
+        Pageable pageable = PageRequest.of(0, 1);
+        assertEquals(2, productRepository.searchProduct("%D%", pageable, CountMode.CACHED).getTotalElements());
+
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        Product product = new Product();
+        product.setName("LENOVO D");
+        product.setPrice(5_000_000L);
+        product.setCategory(category);
+        productRepository.save(product);
+        assertEquals(3, productRepository.searchProduct("%D%", pageable, CountMode.CACHED).getTotalElements());
+
+        productRepository.deleteByName("LENOVO D");
+        assertEquals(2, productRepository.searchProduct("%D%", pageable, CountMode.CACHED).getTotalElements());
+    }
+
+    @Test
+    void fullTextSearchProducts() {
+        Page<Product> products = productRepository.fullTextSearchProduct("dell", 0, 10);
+        assertEquals(1, products.getTotalElements());
+        assertEquals("DELL", products.getContent().get(0).getName());
+
+        products = productRepository.fullTextSearchProduct("laptop", 0, 1);
+        assertEquals(2, products.getTotalElements());
+        assertEquals(2, products.getTotalPages());
+
+        products = productRepository.fullTextSearchProduct("+-*", 0, 10);
+        assertEquals(0, products.getTotalElements());
+    }
+
+    @Test
+    void fullTextSearchProductsBoolean() {
+        // passed as is: words without + are optional, so either name matches, where the sanitized variant needs both
+        Page<Product> products = productRepository.fullTextSearchProductBoolean("dell advan", PageRequest.of(0, 10));
+        assertEquals(2, products.getTotalElements());
+        assertEquals(0, productRepository.fullTextSearchProduct("dell advan", 0, 10).getTotalElements());
+    }
+
+    @Test
+    void fullTextQuery() {
+        assertEquals("+dell* +lat*", FullTextQueries.toBooleanQuery("DELL  lat"));
+        assertEquals("+dell*", FullTextQueries.toBooleanQuery("+dell -\"\"*"));
+        assertEquals("", FullTextQueries.toBooleanQuery(null));
+    }
+
     @Test
     void modifying() {
         transactionOperations.executeWithoutResult(transactionStatus -> {
@@ -227,6 +357,57 @@ class ProductRepositoryTest {
         }
     }
 
+    @Test
+    void scroll() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        List<String> names = new ArrayList<>();
+        String token = null;
+        do {
+            Window<Product> window = productRepository.findAllByCategory(
+                    category, ScrollTokens.decode(token), Sort.by(Sort.Order.asc("id")), Limit.of(1));
+            window.forEach(product -> names.add(product.getName()));
+            token = ScrollTokens.next(window);
+        } while (token != null);
+
+        assertEquals(List.of("DELL", "ADVAN"), names);
+    }
+
+    @Test
+    void scrollSearchProduct() {
+        Sort sort = Sort.by(Sort.Order.desc("id"));
+
+        Window<Product> window = productRepository.searchProduct("%D%", ScrollTokens.decode(null), sort, Limit.of(1));
+        assertEquals(1, window.size());
+        assertEquals("ADVAN", window.getContent().get(0).getName());
+        assertTrue(window.hasNext());
+
+        window = productRepository.searchProduct("%D%", ScrollTokens.decode(ScrollTokens.next(window)), sort, Limit.of(1));
+        assertEquals(1, window.size());
+        assertEquals("DELL", window.getContent().get(0).getName());
+        assertFalse(window.hasNext());
+    }
+
+    @Test
+    void scrollByCreatedDate() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        // the Instant of createdDate round-trips through the token
+        Sort sort = Sort.by(Sort.Order.asc("createdDate"), Sort.Order.asc("id"));
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        do {
+            Window<Product> window = productRepository.findAllByCategory(category, ScrollTokens.decode(token), sort, Limit.of(1));
+            window.forEach(product -> ids.add(product.getId()));
+            token = ScrollTokens.next(window);
+        } while (token != null);
+
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL").longValue(), ids.size());
+        assertEquals(ids.size(), Set.copyOf(ids).size());
+    }
+
     @Test
     void lock1() {
         transactionOperations.executeWithoutResult(transactionStatus -> {
@@ -270,6 +451,33 @@ class ProductRepositoryTest {
         assertEquals("ADVAN", products.get(1).getName());
     }
 
+    @Test
+    void reusableSpecifications() {
+        Specification<Product> specification = ProductSpecifications.nameIn(List.of("DELL", "ADVAN", "NOTHING"))
+                .and(ProductSpecifications.priceBetween(0L, null))
+                .and(ProductSpecifications.inCategory(1L));
+
+        List<Product> products = productRepository.findAll(specification, Sort.by("id"));
+        assertEquals(2, products.size());
+
+        assertTrue(productRepository.findAll(ProductSpecifications.nameIn(List.of())).isEmpty());
+        assertEquals(0, productRepository.count(ProductSpecifications.priceBetween(1L, 0L)));
+    }
+
+    @Test
+    void specificationPlanCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        productRepository.findAll(ProductSpecifications.nameIn(List.of("DELL", "ADVAN", "ASUS")));
+
+        // same shape with other values (an IN list expands to one parameter per value, so the same size):
+        // served from the plan cache
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        productRepository.findAll(ProductSpecifications.nameIn(List.of("LENOVO", "ACER", "HP")));
+        assertTrue(statistics.getQueryPlanCacheHitCount() > hits);
+        assertEquals(misses, statistics.getQueryPlanCacheMissCount());
+    }
+
     @Test
     void projection() {
         List<SimpleProduct> simpleProducts = productRepository.findAllByNameLike("%D%", SimpleProduct.class);
@@ -278,4 +486,95 @@ class ProductRepositoryTest {
         List<ProductPrice> productPrices = productRepository.findAllByNameLike("%D%", ProductPrice.class);
         assertEquals(2, productPrices.size());
     }
+
+    @Test
+    void projectionWithoutEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<SimpleProduct> simpleProducts = productRepository.findAllByNameLike("%D%", SimpleProduct.class);
+        assertEquals(2, simpleProducts.size());
+
+        List<SimpleProduct> projected = productRepository.findAllProjectedByNameLike("%D%", SimpleProduct.class);
+        assertEquals(simpleProducts.size(), projected.size());
+
+        List<ProductPrice> productPrices = productRepository.findAllProjectedByNameLike("%D%", ProductPrice.class);
+        assertEquals(2, productPrices.size());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void bulkInsert() {
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            Category category = categoryRepository.findById(1L).orElse(null);
+            assertNotNull(category);
+
+            long before = productRepository.count();
+
+            int total = productRepository.bulkInsert(newProducts(category, 120), 50);
+            assertEquals(120, total);
+            assertEquals(before + 120L, productRepository.count());
+
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void bulkInsertBatchesStatements() {
+        int rows = 200;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            Category category = categoryRepository.findById(1L).orElse(null);
+            assertNotNull(category);
+
+            statistics.clear();
+            long insertsBefore = sessionStatus("Com_insert");
+            long updatesBefore = sessionStatus("Com_update");
+            List<Product> products = newProducts(category, rows);
+            assertEquals(rows, productRepository.bulkInsert(products));
+            assertEquals(rows, statistics.getEntityInsertCount());
+
+            // the session counters of the transaction's connection also see JdbcTemplate statements: rewritten
+            // batch inserts and one aggregated category_stats update, no upsert per row
+            long statements = sessionStatus("Com_insert") - insertsBefore + sessionStatus("Com_update") - updatesBefore;
+            assertTrue(statements <= rows / 50 * 2, () -> "insert and update statements " + statements);
+
+            // JDBC batches of 50 inserts, and pooled-lo reserves 50 ids per id_generators round trip (a select and an
+            // update), instead of an insert and an id fetch per row
+            long blocks = rows / 50;
+            assertTrue(statistics.getPrepareStatementCount() <= blocks * 3,
+                    () -> "prepared statements " + statistics.getPrepareStatementCount());
+
+            // pooled-lo hands out each reserved block in order, so ids only jump when a new block is fetched
+            List<Long> ids = products.stream().map(Product::getId).toList();
+            long jumps = 0;
+            for (int i = 1; i < ids.size(); i++) {
+                if (ids.get(i) != ids.get(i - 1) + 1) {
+                    jumps++;
+                }
+            }
+            assertTrue(jumps <= blocks, "id jumps " + jumps);
+
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    private long sessionStatus(String variable) {
+        Long value = jdbcTemplate.queryForObject("SHOW SESSION STATUS LIKE ?", (resultSet, row) -> resultSet.getLong(2), variable);
+        return value == null ? 0 : value;
+    }
+
+    private List<Product> newProducts(Category category, int total) {
+        List<Product> products = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            Product product = new Product();
+            product.setName("BULK " + i);
+            product.setPrice(1_000_000L);
+            product.setCategory(category);
+            products.add(product);
+        }
+        return products;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.IdRange;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs EXPLAIN on the SQL of the hot repository and LIKE queries against H2 and fails on any table scan
+// outside the documented EXPECTED_LIKE_SCANS
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "programmershinobi.belajar.springdata.jpa.repository.RecordingStatementInspector")
+@ActiveProfiles("embedded")
+class QueryPlanTest {
+
+    private static final String CATEGORY_NAME = "CATEGORY 7";
+
+    private static final String PREFIX_PATTERN = "CATEGORY 1%";
+
+    /*
+     * LIKE queries are checked on their own, explained with a prefix pattern, which an index on the column can serve.
+     * A leading wildcard ('%CATEGORY 1%') can never use a B-tree index, so it is an expected scan for every LIKE
+     * query and is not checked; fullTextSearchProduct is the indexed alternative on MySQL. The queries below scan
+     * whatever the pattern is, every other LIKE query must use an index for a prefix pattern.
+     */
+    private static final Map<String, String> EXPECTED_LIKE_SCANS = Map.of(
+            "searchProduct", "p.name LIKE ? OR p.category.name LIKE ?, no single index serves an OR across two tables",
+            "searchProductScroll", "ProductSpecifications.nameOrCategoryNameLike, the same OR as searchProduct");
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @BeforeEach
+    void setUp() {
+        // the embedded database is shared with other test classes, so the guard looks for this fixture only
+        if (categoryRepository.findFirstByNameEquals("CATEGORY 0").isPresent()) {
+            return;
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Category category = new Category();
+            category.setName("CATEGORY " + i);
+            categories.add(category);
+        }
+        categoryRepository.bulkInsert(categories);
+
+        for (Category category : categories) {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Product product = new Product();
+                product.setName("PRODUCT " + category.getId() + "-" + i);
+                product.setPrice(1_000L + i);
+                product.setCategory(category);
+                products.add(product);
+            }
+            productRepository.bulkInsert(products);
+        }
+
+        // row counts and selectivity for the optimizer
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Category category = categoryRepository.findAllByNameLike(CATEGORY_NAME).get(0);
+        Product product = productRepository.findAllByCategory_Name(CATEGORY_NAME).get(0);
+
+        RecordingStatementInspector.start();
+        List<String> statements;
+        try {
+            productRepository.findById(product.getId());
+            productRepository.existsByName(product.getName());
+            productRepository.searchProductUsingName(product.getName(), PageRequest.of(0, 10));
+            productRepository.countByCategory_Name(CATEGORY_NAME);
+            productRepository.findAllByCategory_Name(CATEGORY_NAME);
+            productRepository.findAllByCategory_Name(CATEGORY_NAME, PageRequest.of(0, 10, Sort.by("id")));
+            productRepository.findAllByCategory_Name(CATEGORY_NAME, ScrollPosition.keyset(), Sort.by("id"), Limit.of(10));
+            productRepository.findAllByCategory(category, PageRequest.of(0, 10, Sort.by("id")));
+            productRepository.findAllByCategory(category, ScrollPosition.keyset(), Sort.by("id"), Limit.of(10));
+            productRepository.findAllByCategoryAndIdBetweenOrderById(category, product.getId(), product.getId() + 10);
+            IdRange range = productRepository.findIdRangeByCategory(category);
+            assertFalse(range.isEmpty());
+            categoryRepository.findFirstByNameEquals(CATEGORY_NAME);
+
+            transactionOperations.executeWithoutResult(transactionStatus -> {
+                try (Stream<Product> stream = productRepository.streamAllByCategory(category)) {
+                    assertEquals(50, stream.count());
+                }
+                productRepository.deleteByName("NOTHING");
+                transactionStatus.setRollbackOnly();
+            });
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+
+        List<String> fullScans = new ArrayList<>();
+        for (String sql : new LinkedHashSet<>(statements)) {
+            String plan = explain(sql, "1");
+            if (isTableScan(plan)) {
+                fullScans.add(sql + "\n    " + plan);
+            }
+        }
+        assertFalse(statements.isEmpty());
+        assertTrue(fullScans.isEmpty(), () -> "full table scans:\n" + String.join("\n", fullScans));
+    }
+
+    @Test
+    void likeQueriesScanOnlyWhereExpected() {
+        Map<String, Consumer<String>> queries = new LinkedHashMap<>();
+        queries.put("searchProduct", pattern -> productRepository.searchProduct(pattern, PageRequest.of(0, 10)));
+        queries.put("searchProductScroll", pattern ->
+                productRepository.searchProduct(pattern, ScrollPosition.keyset(), Sort.by("id"), Limit.of(10)));
+        queries.put("findAllByNameLike", pattern -> categoryRepository.findAllByNameLike(pattern));
+        queries.put("findAllByNameLikeProjection", pattern -> productRepository.findAllByNameLike(pattern, Product.class));
+        queries.put("searchProductUsingName", pattern -> productRepository.searchProductUsingName(pattern, PageRequest.of(0, 10)));
+
+        List<String> fullScans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            RecordingStatementInspector.start();
+            List<String> statements;
+            try {
+                query.accept(PREFIX_PATTERN);
+            } finally {
+                statements = RecordingStatementInspector.stop();
+            }
+            assertFalse(statements.isEmpty(), name);
+
+            for (String sql : new LinkedHashSet<>(statements)) {
+                String plan = explain(sql, PREFIX_PATTERN);
+                if (isTableScan(plan) && !EXPECTED_LIKE_SCANS.containsKey(name)) {
+                    fullScans.add(name + ": " + sql + "\n    " + plan);
+                }
+            }
+        });
+        assertTrue(fullScans.isEmpty(), () -> "unexpected full table scans:\n" + String.join("\n", fullScans));
+    }
+
+    private static boolean isTableScan(String plan) {
+        return plan.toLowerCase(Locale.ROOT).contains(".tablescan");
+    }
+
+    // binds a dummy value of the type H2 inferred for every parameter, text parameters get the given value
+    private String explain(String sql, String text) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    switch (metaData.getParameterType(i)) {
+                        case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.NUMERIC, Types.DECIMAL ->
+                                statement.setLong(i, 1L);
+                        default -> statement.setString(i, text);
+                    }
+                }
+
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package programmershinobi.belajar.springdata.jpa.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Collects the SQL Hibernate sends between start() and stop(); Hibernate creates it, so the state is static
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean recording;
+
+    static void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    static List<String> stop() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
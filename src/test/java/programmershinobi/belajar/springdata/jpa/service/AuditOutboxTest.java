@@ -0,0 +1,77 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.entity.AuditLog;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.model.AuditAction;
+import programmershinobi.belajar.springdata.jpa.repository.AuditLogRepository;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AuditOutboxTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditOutboxRelay auditOutboxRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Test
+    void outboxThenRelay() {
+        Category category = new Category();
+        category.setName("AUDIT OUTBOX");
+        categoryRepository.save(category);
+
+        category.setName("AUDIT OUTBOX (Updated)");
+        categoryRepository.save(category);
+        categoryRepository.delete(category);
+
+        auditOutboxRelay.drain();
+        assertEquals(0, outboxCount(category.getId()));
+
+        List<AuditLog> history = auditLogRepository.findAllByEntityTypeAndEntityIdOrderByIdDesc("Category", category.getId());
+        assertEquals(3, history.size());
+        assertEquals(AuditAction.DELETE, history.get(0).getAction());
+        assertEquals(AuditAction.UPDATE, history.get(1).getAction());
+        assertEquals("name=AUDIT OUTBOX (Updated)", history.get(1).getChanges());
+        assertEquals(AuditAction.INSERT, history.get(2).getAction());
+    }
+
+    @Test
+    void rollbackDiscardsEvents() {
+        Long id = transactionOperations.execute(transactionStatus -> {
+            Category category = new Category();
+            category.setName("AUDIT ROLLBACK");
+            categoryRepository.save(category);
+
+            transactionStatus.setRollbackOnly();
+            return category.getId();
+        });
+
+        assertEquals(0, outboxCount(id));
+        auditOutboxRelay.drain();
+        assertTrue(auditLogRepository.findAllByEntityTypeAndEntityIdOrderByIdDesc("Category", id).isEmpty());
+    }
+
+    private long outboxCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_outbox WHERE entity_type = 'Category' AND entity_id = ?",
+                Long.class, id);
+    }
+}
@@ -0,0 +1,108 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // even ids exist
+    private Map<Long, String> load(Set<Long> ids) {
+        batches.add(ids);
+        Map<Long, String> values = new HashMap<>();
+        ids.stream().filter(id -> id % 2 == 0).forEach(id -> values.put(id, "CATEGORY " + id));
+        return values;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keysWithinWindowShareOneBatch() throws Exception {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>(this::load, Duration.ofMillis(200), 100, executor)) {
+            List<CompletableFuture<Optional<String>>> futures = new ArrayList<>();
+            for (long id = 1; id <= 10; id++) {
+                futures.add(loader.load(id));
+                futures.add(loader.load(id));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                long id = i / 2 + 1;
+                Optional<String> value = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(id % 2 == 0 ? Optional.of("CATEGORY " + id) : Optional.empty(), value);
+            }
+            assertEquals(1, batches.size());
+            assertEquals(10, batches.get(0).size());
+        }
+    }
+
+    @Test
+    void fullBatchIsDispatchedEarly() throws Exception {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>(this::load, Duration.ofSeconds(30), 3, executor)) {
+            CompletableFuture<Optional<String>> first = loader.load(2L);
+            loader.load(4L);
+            loader.load(6L);
+
+            assertEquals(Optional.of("CATEGORY 2"), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Set.of(2L, 4L, 6L), batches.get(0));
+        }
+    }
+
+    @Test
+    void failureCompletesTheWholeBatch() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>(ids -> {
+            throw new IllegalStateException("database down");
+        }, Duration.ofMillis(10), 100, executor)) {
+            CompletableFuture<Optional<String>> first = loader.load(1L);
+            CompletableFuture<Optional<String>> second = loader.load(2L);
+
+            assertThrows(IllegalStateException.class, () -> SingleFlight.join(first));
+            assertThrows(IllegalStateException.class, () -> SingleFlight.join(second));
+        }
+    }
+
+    @Test
+    void saturatedExecutorDoesNotBlockCallers() throws Exception {
+        CountDownLatch saturated = new CountDownLatch(1);
+        // like a SimpleAsyncTaskExecutor at its concurrency limit, execute blocks until a slot frees up
+        Executor blocking = runnable -> {
+            try {
+                saturated.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            executor.execute(runnable);
+        };
+
+        try (BatchLoader<Long, String> loader = new BatchLoader<>(this::load, Duration.ofMillis(1), 1, blocking)) {
+            List<CompletableFuture<Optional<String>>> futures = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> List.of(loader.load(2L), loader.load(4L), loader.load(6L)));
+            futures.forEach(future -> assertFalse(future.isDone()));
+
+            saturated.countDown();
+            assertEquals(Optional.of("CATEGORY 6"), futures.get(2).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -3,6 +3,12 @@ package programmershinobi.belajar.springdata.jpa.service;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import programmershinobi.belajar.springdata.jpa.model.BulkWriteResult;
+import programmershinobi.belajar.springdata.jpa.model.ChunkResult;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,6 +20,9 @@ class CategoryServiceTest {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     @Test
     void success() {
         assertThrows(RuntimeException.class, () -> {
@@ -41,4 +50,30 @@ class CategoryServiceTest {
             categoryService.manual();
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void createCategoriesInChunks() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            names.add("BULK CHUNK " + i);
+        }
+        // name is NOT NULL, the second chunk fails without retry and the others still commit
+        names.set(4, null);
+
+        try {
+            BulkWriteResult result = categoryService.createCategories(names, 3);
+            assertEquals(3, result.chunks().size());
+            assertEquals(4, result.written());
+            assertFalse(result.isSuccess());
+
+            List<ChunkResult> failed = result.failedChunks();
+            assertEquals(1, failed.size());
+            assertEquals(1, failed.get(0).index());
+            assertEquals(1, failed.get(0).attempts());
+
+            assertEquals(4, categoryRepository.findAllByNameLike("BULK CHUNK %").size());
+        } finally {
+            categoryRepository.deleteAll(categoryRepository.findAllByNameLike("BULK CHUNK %"));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.CategoryStats;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryStatsRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CategoryStatsServiceTest {
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @Autowired
+    private CategoryStatsRepository categoryStatsRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void incremental() {
+        categoryStatsService.reconcile();
+        CategoryStats before = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(before);
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"), before.getProductCount());
+
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        Product product = new Product();
+        product.setName("STATS");
+        product.setPrice(999_000_000L);
+        product.setCategory(category);
+        product = productRepository.save(product);
+
+        CategoryStats stats = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(stats);
+        assertEquals(before.getProductCount() + 1, stats.getProductCount());
+        assertEquals(before.getSumPrice() + 999_000_000L, stats.getSumPrice());
+        assertEquals(999_000_000L, stats.getMaxPrice());
+
+        product.setPrice(1L);
+        product = productRepository.save(product);
+
+        stats = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(stats);
+        assertEquals(before.getSumPrice() + 1L, stats.getSumPrice());
+        assertEquals(1L, stats.getMinPrice());
+        assertEquals(before.getMaxPrice(), stats.getMaxPrice());
+
+        productRepository.delete(product);
+
+        stats = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(stats);
+        assertEquals(before.getProductCount(), stats.getProductCount());
+        assertEquals(before.getSumPrice(), stats.getSumPrice());
+        assertEquals(before.getMinPrice(), stats.getMinPrice());
+        assertEquals(0, categoryStatsService.reconcile());
+    }
+
+    @Test
+    void bulkWriteRefreshesTouchedCategory() {
+        categoryStatsService.reconcile();
+        CategoryStats before = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(before);
+
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        Product product = new Product();
+        product.setName("STATS BULK");
+        product.setPrice(5L);
+        product.setCategory(category);
+        productRepository.save(product);
+
+        assertEquals(1, productRepository.deleteByName("STATS BULK"));
+
+        CategoryStats stats = categoryStatsRepository.findById(1L).orElse(null);
+        assertNotNull(stats);
+        assertEquals(before.getProductCount(), stats.getProductCount());
+        assertEquals(before.getSumPrice(), stats.getSumPrice());
+        assertEquals(before.getMinPrice(), stats.getMinPrice());
+        assertEquals(0, categoryStatsService.reconcile());
+    }
+
+    @Test
+    void countByCategoryName() {
+        categoryStatsService.reconcile();
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"),
+                categoryStatsRepository.countProductsByCategoryName("LAPTOP MAHAL"));
+    }
+}
@@ -0,0 +1,88 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CoalescingReadServiceTest {
+
+    private static final int CALLERS = 50;
+
+    @Autowired
+    private CoalescingReadService coalescingReadService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Test
+    void concurrentFindCategoryById() throws Exception {
+        List<Long> ids = categoryRepository.findAll().stream().map(Category::getId).limit(5).toList();
+        assertFalse(ids.isEmpty());
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evict(Category.class);
+
+        statistics.clear();
+        findConcurrently(ids);
+        // callers share batched IN queries instead of running one query each
+        long batchedStatements = statistics.getPrepareStatementCount();
+        assertTrue(batchedStatements > 0);
+        assertTrue(batchedStatements < CALLERS, "prepared statements " + batchedStatements);
+
+        statistics.clear();
+        findConcurrently(ids);
+        // the batches are multi-loaded, so categories now in the second-level cache are not queried again
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void nullIdRejected() {
+        assertThrows(IllegalArgumentException.class, () -> coalescingReadService.findCategoryById(null));
+        assertThrows(IllegalArgumentException.class, () -> coalescingReadService.findCategoryByIdAsync(null));
+        // inside a transaction the call goes to the repository, with the same outcome
+        assertThrows(IllegalArgumentException.class, () -> transactionOperations.executeWithoutResult(
+                transactionStatus -> coalescingReadService.findCategoryById(null)));
+    }
+
+    private void findConcurrently(List<Long> ids) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<CompletableFuture<Optional<Category>>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                Long id = ids.get(i % ids.size());
+                futures.add(CompletableFuture.supplyAsync(() -> coalescingReadService.findCategoryById(id), callers));
+            }
+            for (int i = 0; i < CALLERS; i++) {
+                Optional<Category> category = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(ids.get(i % ids.size()), category.map(Category::getId).orElse(null));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
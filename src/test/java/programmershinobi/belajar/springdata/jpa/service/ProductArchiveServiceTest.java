@@ -0,0 +1,97 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ArchivedProductRepository;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryStatsRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductArchiveServiceTest {
+
+    private static final String CATEGORY_NAME = "ARCHIVE TEST";
+
+    // far enough back that nothing but the rows of this test is older
+    private static final Instant CUTOFF = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Autowired
+    private ProductArchiveService productArchiveService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Autowired
+    private CategoryStatsRepository categoryStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName(CATEGORY_NAME);
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("ARCHIVE " + i);
+            product.setPrice(1_000L * (i + 1));
+            product.setCategory(category);
+            products.add(productRepository.save(product));
+        }
+
+        // the first two are cold
+        jdbcTemplate.update("UPDATE products SET created_date = ? WHERE id IN (?, ?)",
+                Timestamp.from(Instant.parse("1999-06-01T00:00:00Z")), products.get(0).getId(), products.get(1).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products_archive WHERE category_id = ?", category.getId());
+        productRepository.deleteAll(productRepository.findAllByCategory_Name(CATEGORY_NAME));
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void archive() {
+        assertEquals(2, productArchiveService.archive(CUTOFF));
+
+        assertEquals(1, productArchiveService.countByCategoryName(CATEGORY_NAME, false));
+        assertEquals(3, productArchiveService.countByCategoryName(CATEGORY_NAME, true));
+        assertEquals(3, productArchiveService.findAllByCategoryName(CATEGORY_NAME, true).size());
+
+        assertFalse(productArchiveService.existsByName("ARCHIVE 0", false));
+        assertTrue(productArchiveService.existsByName("ARCHIVE 0", true));
+        assertEquals(2L, archivedProductRepository.countByCategory_Name(CATEGORY_NAME));
+
+        // stats follow the hot table
+        assertEquals(1L, categoryStatsRepository.countProductsByCategoryName(CATEGORY_NAME));
+        assertEquals(3_000L, categoryStatsRepository.findById(category.getId()).orElseThrow().getSumPrice());
+
+        // nothing cold is left
+        assertEquals(0, productArchiveService.archive(CUTOFF));
+    }
+}
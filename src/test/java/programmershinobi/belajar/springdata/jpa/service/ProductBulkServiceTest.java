@@ -0,0 +1,81 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionOperations;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.model.PriceAdjustment;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductBulkServiceTest {
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Test
+    void repriceByCategory() {
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            Product product = productRepository.findById(1L).orElse(null);
+            assertNotNull(product);
+            Long price = product.getPrice();
+
+            int total = productBulkService.reprice(1L, PriceAdjustment.absolute(1_000L));
+            assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"), (long) total);
+
+            // the persistence context was cleared, so this is a fresh row
+            product = productRepository.findById(1L).orElse(null);
+            assertNotNull(product);
+            assertEquals(price + 1_000L, product.getPrice());
+
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void repriceByIdsPercent() {
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            Product product = productRepository.findById(1L).orElse(null);
+            assertNotNull(product);
+            Long price = product.getPrice();
+
+            int total = productBulkService.reprice(List.of(1L, 1L, 999_999L), PriceAdjustment.percent(10));
+            assertEquals(1, total);
+
+            product = productRepository.findById(1L).orElse(null);
+            assertNotNull(product);
+            assertEquals(price + price * 10 / 100, product.getPrice());
+
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void deleteByNames() {
+        transactionOperations.executeWithoutResult(transactionStatus -> {
+            int total = productBulkService.deleteByNames(List.of("DELL", "ADVAN", "NOTHING"));
+            assertEquals(2, total);
+            assertFalse(productRepository.existsByName("DELL"));
+
+            transactionStatus.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void inChunkSizeMustBePositive() {
+        // a chunk of 0 ids would never advance through the IN list
+        assertThrows(IllegalArgumentException.class, () -> new ProductBulkService(0));
+        assertThrows(IllegalArgumentException.class, () -> new ProductBulkService(-1));
+    }
+}
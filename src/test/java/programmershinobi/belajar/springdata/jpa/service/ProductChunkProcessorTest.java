@@ -0,0 +1,102 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.model.ChunkJobResult;
+import programmershinobi.belajar.springdata.jpa.model.PriceAdjustment;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductChunkProcessorTest {
+
+    private static final String JOB = "product-chunk-processor-test";
+
+    @Autowired
+    private ProductChunkProcessor productChunkProcessor;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
+    @AfterEach
+    void tearDown() {
+        productChunkProcessor.reset(JOB);
+    }
+
+    @Test
+    void processCategory() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        ChunkJobResult result = productChunkProcessor.process(JOB, category, 1, products -> products.size());
+        assertTrue(result.isComplete());
+        assertEquals(productRepository.countByCategory_Name("LAPTOP MAHAL"), result.processed());
+        assertEquals(result.totalChunks(), result.completedChunks());
+
+        // every chunk is checkpointed, so a second run has nothing left to do
+        result = productChunkProcessor.process(JOB, category, 1, products -> products.size());
+        assertEquals(result.totalChunks(), result.skippedChunks());
+        assertEquals(0, result.processed());
+    }
+
+    @Test
+    void restartAfterFailure() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        AtomicBoolean failed = new AtomicBoolean();
+        ChunkJobResult result = productChunkProcessor.process(JOB, category, 1, products -> {
+            if (!products.isEmpty() && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("first non empty chunk fails");
+            }
+            return products.size();
+        });
+        assertFalse(result.isComplete());
+        assertEquals(1, result.failedChunks().size());
+
+        // only the failed chunk runs again
+        result = productChunkProcessor.process(JOB, category, 1, products -> products.size());
+        assertTrue(result.isComplete());
+        assertEquals(1, result.completedChunks());
+        assertEquals(result.totalChunks() - 1, result.skippedChunks());
+    }
+
+    @Test
+    void rangeSizeMismatch() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        productChunkProcessor.process(JOB, category, 1, products -> products.size());
+
+        // checkpoints of another grid would not line up with the new chunks
+        assertThrows(IllegalStateException.class,
+                () -> productChunkProcessor.process(JOB, category, 2, products -> products.size()));
+    }
+
+    @Test
+    void repriceKeepsStats() {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+        categoryStatsService.reconcile();
+
+        ChunkJobResult result = productChunkProcessor.reprice(JOB, category, PriceAdjustment.absolute(1));
+        assertTrue(result.isComplete());
+        productChunkProcessor.reset(JOB);
+        productChunkProcessor.reprice(JOB, category, PriceAdjustment.absolute(-1));
+
+        assertEquals(0, categoryStatsService.reconcile());
+    }
+}
@@ -0,0 +1,54 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void ndjson() throws IOException {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long total = productExportService.export(category, ProductExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(productRepository.countByCategory_Name(category.getName()), total);
+        assertEquals(total, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+    }
+
+    @Test
+    void csv() throws IOException {
+        Category category = categoryRepository.findById(1L).orElse(null);
+        assertNotNull(category);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long total = productExportService.export(category, ProductExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,name,price,category_id", lines[0]);
+        assertEquals(total + 1, lines.length);
+    }
+}
@@ -0,0 +1,78 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductPriceServiceTest {
+
+    @Autowired
+    private ProductPriceService productPriceService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void optimisticConcurrentUpdates() throws Exception {
+        Product product = productRepository.findById(1L).orElse(null);
+        assertNotNull(product);
+        Long price = product.getPrice();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    for (int j = 0; j < 5; j++) {
+                        productPriceService.updatePrice(1L, current -> current + 1);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        product = productRepository.findById(1L).orElse(null);
+        assertNotNull(product);
+        assertEquals(price + 20, product.getPrice());
+
+        productPriceService.updatePrice(1L, price);
+    }
+
+    @Test
+    void retryExecutor() {
+        AtomicInteger attempts = new AtomicInteger();
+        RetryExecutor retryExecutor = new RetryExecutor(3, Duration.ofMillis(1), Duration.ofMillis(2),
+                exception -> exception instanceof OptimisticLockingFailureException);
+
+        assertEquals("OK", retryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "OK";
+        }));
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        assertThrows(IllegalStateException.class, () -> retryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not retryable");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
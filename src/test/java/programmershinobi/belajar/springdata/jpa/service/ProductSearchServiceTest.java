@@ -0,0 +1,35 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void searchProductConcurrently() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Order.desc("id")));
+
+        Page<Product> expected = productRepository.searchProduct("%D%", pageable);
+        Page<Product> products = productSearchService.searchProduct("%D%", pageable);
+
+        assertEquals(expected.getTotalElements(), products.getTotalElements());
+        assertEquals(expected.getTotalPages(), products.getTotalPages());
+        assertEquals(expected.getContent().get(0).getId(), products.getContent().get(0).getId());
+    }
+}
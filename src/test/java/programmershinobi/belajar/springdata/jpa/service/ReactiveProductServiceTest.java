@@ -0,0 +1,146 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import programmershinobi.belajar.springdata.jpa.entity.Category;
+import programmershinobi.belajar.springdata.jpa.entity.Product;
+import programmershinobi.belajar.springdata.jpa.repository.CategoryRepository;
+import programmershinobi.belajar.springdata.jpa.repository.ProductRepository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class ReactiveProductServiceTest {
+
+    private static final String CATEGORY_NAME = "FLUX";
+
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.product.flux.max-connections}")
+    private int maxConnections;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.findFirstByNameEquals(CATEGORY_NAME).orElse(null);
+        if (category != null) {
+            return;
+        }
+
+        category = new Category();
+        category.setName(CATEGORY_NAME);
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Product product = new Product();
+            product.setName("FLUX " + i);
+            product.setPrice(1_000L + i);
+            product.setCategory(category);
+            products.add(product);
+        }
+        productRepository.bulkInsert(products);
+    }
+
+    @Test
+    void findAllByCategoryBackpressure() {
+        StepVerifier.create(reactiveProductService.findAllByCategory(category.getId()), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(10)
+                .expectNextCount(10)
+                .thenRequest(90)
+                .expectNextCount(90)
+                .verifyComplete();
+    }
+
+    @Test
+    void detachedProducts() {
+        List<Product> products = reactiveProductService.findAllByCategory(category.getId()).take(5).collectList().block();
+        assertNotNull(products);
+        assertEquals(5, products.size());
+        products.forEach(product -> assertFalse(Hibernate.isInitialized(product.getCategory())));
+    }
+
+    @Test
+    void findAllPricesByCategory() {
+        StepVerifier.create(reactiveProductService.findAllPricesByCategory(category.getId()))
+                .assertNext(productPrice -> assertEquals(1_000L, productPrice.price()))
+                .expectNextCount(99)
+                .verifyComplete();
+    }
+
+    @Test
+    void cancelReleasesCursor() {
+        // more cancelled subscriptions than the scheduler has threads, each must give its connection back
+        for (int i = 0; i < 50; i++) {
+            StepVerifier.create(reactiveProductService.searchProduct("FLUX %"))
+                    .expectNextCount(3)
+                    .thenCancel()
+                    .verify();
+        }
+        assertEquals(100L, reactiveProductService.searchProduct("FLUX %").count().block());
+    }
+
+    @Test
+    void slowSubscribersShareConnectionPermits() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        int subscribers = hikari.getMaximumPoolSize() + 5;
+
+        AtomicInteger peak = new AtomicInteger();
+        Disposable sampler = Flux.interval(Duration.ofMillis(2))
+                .subscribe(tick -> peak.accumulateAndGet(pool.getActiveConnections(), Math::max));
+        try {
+            // each subscriber holds its cursor open while it slowly drains 20 rows
+            CompletableFuture<List<Long>> slow = Flux.range(0, subscribers)
+                    .flatMap(i -> reactiveProductService.findAllPricesByCategory(category.getId())
+                            .limitRate(1)
+                            .delayElements(Duration.ofMillis(5))
+                            .take(20)
+                            .count(), subscribers)
+                    .collectList()
+                    .toFuture();
+
+            // the pool is not exhausted, a regular read still gets a connection
+            assertEquals(100L, productRepository.countByCategory_Name(CATEGORY_NAME));
+
+            assertEquals(Collections.nCopies(subscribers, 20L), slow.get(60, TimeUnit.SECONDS));
+        } finally {
+            sampler.dispose();
+        }
+        // the cursors plus the regular read above
+        assertTrue(peak.get() <= maxConnections + 1, "peak active connections " + peak.get());
+    }
+}
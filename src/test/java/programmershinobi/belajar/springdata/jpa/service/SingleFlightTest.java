@@ -0,0 +1,80 @@
+package programmershinobi.belajar.springdata.jpa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Long> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture<Long> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("LAPTOP MAHAL", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return 42L;
+            }), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<CompletableFuture<Long>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("LAPTOP MAHAL", () -> {
+                    executions.incrementAndGet();
+                    return -1L;
+                }), executor));
+            }
+            // give the followers time to join the flight before it lands
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(42L, leader.get(5, TimeUnit.SECONDS));
+            for (CompletableFuture<Long> follower : followers) {
+                assertEquals(42L, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureReachesEveryCallerAndIsNotKept() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("DELL", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals(1L, singleFlight.execute("DELL", () -> 1L));
+    }
+
+    @Test
+    void sequentialCallsExecuteAgain() {
+        AtomicInteger executions = new AtomicInteger();
+        singleFlight.execute("ADVAN", () -> (long) executions.incrementAndGet());
+        singleFlight.execute("ADVAN", () -> (long) executions.incrementAndGet());
+        assertEquals(2, executions.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}